@@ -32,7 +32,7 @@ android {
     }
 }
 
-val libVersion = "102.0.0"
+val libVersion = "103.0.0"
 val publishSnapshot = providers.gradleProperty("publishSnapshot").orNull == "true"
 val dependencySnapshot = providers.gradleProperty("dependencySnapshot").orNull == "true"
 fun String.real(snapshot: Boolean) = if (snapshot) "$this-SNAPSHOT" else this
@@ -43,6 +43,7 @@ dependencies {
     compileOnly(libs.androidx.annotation)
     compileOnly(libxposedAnnotation.real(dependencySnapshot))
     lintPublish(libxposedLint.real(dependencySnapshot))
+    testImplementation(libs.junit)
 }
 
 val androidJavadoc by tasks.registering(Javadoc::class) {
@@ -69,6 +70,21 @@ val androidJavadoc by tasks.registering(Javadoc::class) {
     }
 }
 
+// Plain JVM classes of the release variant, consumed by the benchmarks instead of the AAR.
+val jvmJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("jvm")
+    from(tasks.named<JavaCompile>("compileReleaseJavaWithJavac").flatMap { it.destinationDirectory })
+}
+
+val jvmElements by configurations.registering {
+    isCanBeConsumed = true
+    isCanBeResolved = false
+}
+
+artifacts {
+    add(jvmElements.name, jvmJar)
+}
+
 val javadocJar by tasks.registering(Jar::class) {
     archiveClassifier.set("javadoc")
     dependsOn(androidJavadoc)
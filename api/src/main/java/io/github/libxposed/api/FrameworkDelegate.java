@@ -0,0 +1,272 @@
+package io.github.libxposed.api;
+
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Delegate of the framework interface returned by {@link XposedInterfaceWrapper#getFramework()}.
+ * The framework interface is held in a {@code final} field, so the delegate is safely published to
+ * any thread without synchronization and its methods need no attach check. The API version and
+ * framework information do not change during the process lifetime, so they are read once and
+ * returned from {@code final} fields.
+ */
+final class FrameworkDelegate implements XposedInterface {
+
+    private final XposedInterface mBase;
+    private final int mApiVersion;
+    private final String mFrameworkName;
+    private final String mFrameworkVersion;
+    private final long mFrameworkVersionCode;
+    private final long mFrameworkProperties;
+
+    FrameworkDelegate(@NonNull XposedInterface base) {
+        mBase = base;
+        mApiVersion = XposedInterface.super.getApiVersion();
+        mFrameworkName = base.getFrameworkName();
+        mFrameworkVersion = base.getFrameworkVersion();
+        mFrameworkVersionCode = base.getFrameworkVersionCode();
+        mFrameworkProperties = base.getFrameworkProperties();
+    }
+
+    @Override
+    public int getApiVersion() {
+        return mApiVersion;
+    }
+
+    @NonNull
+    @Override
+    public String getFrameworkName() {
+        return mFrameworkName;
+    }
+
+    @NonNull
+    @Override
+    public String getFrameworkVersion() {
+        return mFrameworkVersion;
+    }
+
+    @Override
+    public long getFrameworkVersionCode() {
+        return mFrameworkVersionCode;
+    }
+
+    @Override
+    public long getFrameworkProperties() {
+        return mFrameworkProperties;
+    }
+
+    @NonNull
+    @Override
+    public HookBuilder hook(@NonNull Executable origin) {
+        return mBase.hook(origin);
+    }
+
+    @NonNull
+    @Override
+    public HookBuilder hookClassInitializer(@NonNull Class<?> origin) {
+        return mBase.hookClassInitializer(origin);
+    }
+
+    @NonNull
+    @Override
+    public HookBatch newHookBatch() {
+        return mBase.newHookBatch();
+    }
+
+    @NonNull
+    @Override
+    public DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String className, @NonNull String name, @NonNull String descriptor) {
+        return mBase.hookDeferred(classLoader, className, name, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String descriptor) {
+        return mBase.hookDeferred(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public SelectorHookBuilder hookMatching(@NonNull ClassLoader classLoader) {
+        return mBase.hookMatching(classLoader);
+    }
+
+    @NonNull
+    @Override
+    public Method resolveMethod(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        return mBase.resolveMethod(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public Constructor<?> resolveConstructor(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        return mBase.resolveConstructor(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public Map<String, Executable> resolveExecutables(@NonNull ClassLoader classLoader, @NonNull Collection<String> descriptors) {
+        return mBase.resolveExecutables(classLoader, descriptors);
+    }
+
+    @Override
+    public void unhookAll(@NonNull Collection<? extends HookHandle> handles) {
+        mBase.unhookAll(handles);
+    }
+
+    @NonNull
+    @Override
+    public Map<HookHandle, HookHandle> replaceHooks(@NonNull Map<? extends HookHandle, ? extends Hooker> replacements) {
+        return mBase.replaceHooks(replacements);
+    }
+
+    @Override
+    public boolean deoptimize(@NonNull Executable executable) {
+        return mBase.deoptimize(executable);
+    }
+
+    @NonNull
+    @Override
+    public Map<Executable, DeoptimizeResult> deoptimize(@NonNull Collection<? extends Executable> executables) {
+        return mBase.deoptimize(executables);
+    }
+
+    @NonNull
+    @Override
+    public Invoker<?, Method> getInvoker(@NonNull Method method) {
+        return mBase.getInvoker(method);
+    }
+
+    @NonNull
+    @Override
+    public <T> CtorInvoker<T> getInvoker(@NonNull Constructor<T> constructor) {
+        return mBase.getInvoker(constructor);
+    }
+
+    @Override
+    public void log(int priority, @Nullable String tag, @NonNull String msg) {
+        mBase.log(priority, tag, msg);
+    }
+
+    @Override
+    public void log(int priority, @Nullable String tag, @NonNull String msg, @Nullable Throwable tr) {
+        mBase.log(priority, tag, msg, tr);
+    }
+
+    @Override
+    public boolean isLoggable(int priority, @Nullable String tag) {
+        return mBase.isLoggable(priority, tag);
+    }
+
+    @Override
+    public void log(int priority, @Nullable String tag, @NonNull Supplier<String> msgSupplier) {
+        mBase.log(priority, tag, msgSupplier);
+    }
+
+    @Override
+    public void log(int priority, @Nullable String tag, @NonNull Supplier<String> msgSupplier, @Nullable Throwable tr) {
+        mBase.log(priority, tag, msgSupplier, tr);
+    }
+
+    @NonNull
+    @Override
+    public Logger getLogger(@Nullable String tag) {
+        return mBase.getLogger(tag);
+    }
+
+    @NonNull
+    @Override
+    public Logger getLogger(@Nullable String tag, int capacity, @NonNull LogOverflowPolicy policy) {
+        return mBase.getLogger(tag, capacity, policy);
+    }
+
+    @NonNull
+    @Override
+    public SharedPreferences getRemotePreferences(@NonNull String name) {
+        return mBase.getRemotePreferences(name);
+    }
+
+    @NonNull
+    @Override
+    public PreferencesSnapshot getRemotePreferencesSnapshot(@NonNull String group) {
+        return mBase.getRemotePreferencesSnapshot(group);
+    }
+
+    @Override
+    public void registerRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener) {
+        mBase.registerRemotePreferencesListener(group, listener);
+    }
+
+    @Override
+    public void unregisterRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener) {
+        mBase.unregisterRemotePreferencesListener(group, listener);
+    }
+
+    @NonNull
+    @Override
+    public ApplicationInfo getModuleApplicationInfo() {
+        return mBase.getModuleApplicationInfo();
+    }
+
+    @NonNull
+    @Override
+    public String[] listRemoteFiles() {
+        return mBase.listRemoteFiles();
+    }
+
+    @NonNull
+    @Override
+    public List<RemoteFileInfo> listRemoteFileInfos() {
+        return mBase.listRemoteFileInfos();
+    }
+
+    @NonNull
+    @Override
+    public RemoteFileInfo getRemoteFileInfo(@NonNull String name) throws FileNotFoundException {
+        return mBase.getRemoteFileInfo(name);
+    }
+
+    @Override
+    public void registerRemoteFileListener(@NonNull RemoteFileListener listener) {
+        mBase.registerRemoteFileListener(listener);
+    }
+
+    @Override
+    public void unregisterRemoteFileListener(@NonNull RemoteFileListener listener) {
+        mBase.unregisterRemoteFileListener(listener);
+    }
+
+    @NonNull
+    @Override
+    public ParcelFileDescriptor openRemoteFile(@NonNull String name) throws FileNotFoundException {
+        return mBase.openRemoteFile(name);
+    }
+
+    @NonNull
+    @Override
+    public List<RemoteFileResult> openRemoteFiles(@NonNull Collection<String> names) {
+        return mBase.openRemoteFiles(names);
+    }
+
+    @NonNull
+    @Override
+    public ByteBuffer mapRemoteFile(@NonNull String name) throws IOException {
+        return mBase.mapRemoteFile(name);
+    }
+}
@@ -8,11 +8,21 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import io.github.libxposed.api.error.HookFailedError;
 import io.github.libxposed.annotation.SinceApi;
@@ -51,11 +61,43 @@ public interface XposedInterface {
      */
     int API_102 = 102;
 
+    /**
+     * API version 103.
+     * <p>New features</p>
+     * <ul>
+     * <li>Primitive arguments and results can be accessed through the interceptor chain without boxing.</li>
+     * <li>Single arguments can be overridden in place before proceeding the interceptor chain.</li>
+     * <li>Invokers can be converted to exact-typed {@link MethodHandle}s.</li>
+     * <li>Multiple hooks can be installed at once through a {@link HookBatch}.</li>
+     * <li>Multiple hooks can be atomically unhooked or replaced at once.</li>
+     * <li>Hooks can be deferred until the target class is loaded.</li>
+     * <li>Multiple executables can be deoptimized in one pass with detailed results.</li>
+     * <li>Hooks can record invocation metrics.</li>
+     * <li>Asynchronous loggers allow logging from hot paths without blocking.</li>
+     * <li>Log messages can be built lazily only when the priority is loggable.</li>
+     * <li>Remote preferences can be read through immutable, atomically published snapshots.</li>
+     * <li>Remote files can be memory-mapped without copying them onto the Java heap.</li>
+     * <li>Remote file metadata and change notifications allow reloading only changed files.</li>
+     * <li>Multiple remote files can be opened in a single request.</li>
+     * <li>Independent module entries can receive package loaded callbacks concurrently.</li>
+     * <li>Initialization work can run in background while the app keeps starting.</li>
+     * <li>Hot reload can hand over typed state and off-heap regions without copying.</li>
+     * <li>Hook batches can reconcile the hooks of the previous generation by id.</li>
+     * <li>A reference interceptor chain engine is provided in {@code io.github.libxposed.api.chain}.</li>
+     * <li>Modules can call the framework through a safely published interface without attach checks.</li>
+     * <li>Methods and constructors can be resolved from descriptors through a framework-side cache.</li>
+     * <li>Resolved hook targets can be persisted per target package and app version.</li>
+     * <li>All methods matching a selector can be hooked at once, including in classes loaded later.</li>
+     * <li>Hook filters let the framework skip hookers without entering them.</li>
+     * </ul>
+     */
+    int API_103 = 103;
+
     /**
      * The API version of this <b>library</b>. This is a static value for the framework.
      * Modules should use {@link #getApiVersion()} to check the API version at runtime.
      */
-    int LIB_API = API_102;
+    int LIB_API = API_103;
 
     /**
      * The framework has the capability to hook system_server and other system processes.
@@ -149,6 +191,39 @@ public interface XposedInterface {
          * @see Method#invoke(Object, Object...)
          */
         Object invokeSpecial(@NonNull Object thisObject, Object... args) throws InvocationTargetException, IllegalArgumentException, IllegalAccessException;
+
+        /**
+         * Gets an exact-typed method handle that invokes the method (or the constructor as a method)
+         * through the hook chain determined by the invoker's type at the time of this call. Later calls
+         * to {@link #setType(Type)} do not affect the returned handle. Invocations through the handle
+         * bypass access checks.
+         *
+         * <p>The handle type matches the executable: for static methods it is the parameter types and
+         * the return type of the method; for instance methods and constructors the declaring class is
+         * prepended as the first parameter. Constructors return {@code void}. Calling the handle with
+         * {@link MethodHandle#invokeExact(Object...)} avoids the argument array and boxing of
+         * {@link #invoke(Object, Object...)}.</p>
+         *
+         * @return The method handle
+         * @see java.lang.invoke.MethodHandles.Lookup#unreflect(Method)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        MethodHandle getMethodHandle();
+
+        /**
+         * Gets an exact-typed method handle that invokes the special (non-virtual) method (or the
+         * constructor as a method) through the hook chain determined by the invoker's type at the time
+         * of this call. The handle type is the same as {@link #getMethodHandle()} for instance methods.
+         *
+         * @return The method handle
+         * @throws IllegalStateException if the executable is a static method
+         * @see #invokeSpecial(Object, Object...)
+         * @see java.lang.invoke.MethodHandles.Lookup#unreflectSpecial(Method, Class)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        MethodHandle getSpecialMethodHandle();
     }
 
     /**
@@ -182,6 +257,19 @@ public interface XposedInterface {
          */
         @NonNull
         <U> U newInstanceSpecial(@NonNull Class<U> subClass, Object... args) throws InvocationTargetException, IllegalArgumentException, IllegalAccessException, InstantiationException;
+
+        /**
+         * Gets an exact-typed method handle that creates a new instance through the hook chain determined
+         * by the invoker's type at the time of this call. The handle takes the parameter types of the
+         * constructor and returns the declaring class. Later calls to {@link #setType(Type)} do not
+         * affect the returned handle.
+         *
+         * @return The method handle
+         * @see java.lang.invoke.MethodHandles.Lookup#unreflectConstructor(Constructor)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        MethodHandle getNewInstanceHandle();
     }
 
     /**
@@ -202,8 +290,10 @@ public interface XposedInterface {
 
         /**
          * Gets the arguments. The returned list is immutable. If you want to change the arguments, you
-         * should call {@code proceed(Object...)} or {@code proceedWith(Object, Object...)} with the new
-         * arguments.
+         * should call {@link #setArg(int, Object)} before proceeding, or call {@code proceed(Object...)}
+         * or {@code proceedWith(Object, Object...)} with the new arguments.
+         * <p>Primitive arguments are boxed in the returned list. For hot hooks, prefer the typed
+         * accessors such as {@link #getIntArg(int)} to avoid allocation.</p>
          */
         @NonNull
         List<Object> getArgs();
@@ -218,6 +308,227 @@ public interface XposedInterface {
          */
         Object getArg(int index) throws IndexOutOfBoundsException, ClassCastException;
 
+        /**
+         * Gets the {@code boolean} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code boolean}
+         */
+        @SinceApi(API_103)
+        boolean getBooleanArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code byte} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code byte}
+         */
+        @SinceApi(API_103)
+        byte getByteArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code char} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code char}
+         */
+        @SinceApi(API_103)
+        char getCharArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code short} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code short}
+         */
+        @SinceApi(API_103)
+        short getShortArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code int} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code int}
+         */
+        @SinceApi(API_103)
+        int getIntArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code long} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code long}
+         */
+        @SinceApi(API_103)
+        long getLongArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code float} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code float}
+         */
+        @SinceApi(API_103)
+        float getFloatArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Gets the {@code double} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @return The argument at the given index
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code double}
+         */
+        @SinceApi(API_103)
+        double getDoubleArg(int index) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the argument at the given index for the rest of this chain. The framework updates its
+         * argument frame in place, so changing a few arguments does not need a new argument array.
+         * <p>
+         * The overridden value is visible through {@link #getArg(int)}, {@link #getArgs()} and the typed
+         * accessors of this chain, and is passed to the next interceptor by {@link #proceed()},
+         * {@link #proceedWith(Object)} and the typed {@code proceed} variants. {@link #proceed(Object[])}
+         * and {@link #proceedWith(Object, Object[])} use the given arguments instead.
+         * </p>
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the value cannot be assigned to the parameter type at the
+         *                                   given index
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setArg(int index, Object value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code boolean} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code boolean}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setBooleanArg(int index, boolean value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code byte} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code byte}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setByteArg(int index, byte value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code char} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code char}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setCharArg(int index, char value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code short} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code short}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setShortArg(int index, short value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code int} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code int}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setIntArg(int index, int value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code long} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code long}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setLongArg(int index, long value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code float} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code float}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setFloatArg(int index, float value) throws IndexOutOfBoundsException, ClassCastException;
+
+        /**
+         * Overrides the {@code double} argument at the given index without boxing.
+         *
+         * @param index The argument index
+         * @param value The new argument value
+         * @return The chain itself for chaining
+         * @throws IndexOutOfBoundsException if index is out of bounds
+         * @throws ClassCastException        if the parameter type at the given index is not {@code double}
+         * @see #setArg(int, Object)
+         */
+        @SinceApi(API_103)
+        @NonNull
+        Chain setDoubleArg(int index, double value) throws IndexOutOfBoundsException, ClassCastException;
+
         /**
          * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer.
          *
@@ -263,6 +574,102 @@ public interface XposedInterface {
          * @throws Throwable if any interceptor or the original executable throws an exception
          */
         Object proceedWith(@NonNull Object thisObject, @NonNull Object[] args) throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code boolean} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code boolean}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        boolean proceedBoolean() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code byte} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code byte}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        byte proceedByte() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code char} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code char}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        char proceedChar() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code short} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code short}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        short proceedShort() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code int} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code int}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        int proceedInt() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code long} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code long}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        long proceedLong() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code float} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code float}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        float proceedFloat() throws Throwable;
+
+        /**
+         * Proceeds to the next interceptor in the chain with the same arguments and {@code this} pointer,
+         * and returns the {@code double} result without boxing.
+         *
+         * @return The result returned from next interceptor or the original executable if current
+         * interceptor is the last one in the chain.
+         * @throws ClassCastException if the return type of the executable is not {@code double}
+         * @throws Throwable          if any interceptor or the original executable throws an exception
+         */
+        @SinceApi(API_103)
+        double proceedDouble() throws Throwable;
     }
 
     /**
@@ -326,59 +733,526 @@ public interface XposedInterface {
         @SinceApi(API_102)
         @NonNull
         HookHandle replaceHook(@NonNull Hooker hooker);
+
+        /**
+         * Gets a snapshot of the invocation metrics of this hook, or {@code null} if metrics are not
+         * enabled through {@link HookBuilder#setMetricsEnabled(boolean)}. Metrics are kept across
+         * {@link #replaceHook(Hooker)}.
+         */
+        @SinceApi(API_103)
+        @Nullable
+        HookMetrics getMetrics();
     }
 
     /**
-     * Exception handling mode for hookers. This determines how the framework handles exceptions
-     * thrown by hookers. The default mode is {@link ExceptionMode#DEFAULT}.
+     * Snapshot of the invocation metrics of a hook. Time is measured in the hooker itself, excluding
+     * the time spent in the rest of the chain through {@code proceed}, so it reflects the latency
+     * added by the hook.
+     *
+     * @param invocationCount          The number of calls to {@link Hooker#intercept(Chain)}
+     * @param totalTimeNanos           The cumulative time spent in the hooker, in nanoseconds
+     * @param maxTimeNanos             The maximum time spent in the hooker in a single call, in nanoseconds
+     * @param suppressedExceptionCount The number of exceptions thrown by the hooker and swallowed under
+     *                                 {@link ExceptionMode#PROTECTIVE}
      */
-    enum ExceptionMode {
-        /**
-         * Follows the global exception mode configured in {@code module.prop}. Defaults to {@link #PROTECTIVE}
-         * if not specified.
-         */
-        DEFAULT,
+    @SinceApi(API_103)
+    record HookMetrics(long invocationCount, long totalTimeNanos, long maxTimeNanos, long suppressedExceptionCount) {
+    }
 
+    /**
+     * Condition checked by the framework before entering a hooker. If any filter of a hook fails for
+     * a call, the hook is skipped for that call as if it were not installed: the framework neither
+     * builds a {@link Chain} for it nor calls {@link Hooker#intercept(Chain)}. Filters are checked
+     * against the receiver and arguments that the hook would receive.
+     * <p>
+     * This makes hooks that only care about a small part of the calls almost free for the other
+     * calls, compared to checking the condition in the hooker and proceeding.
+     * </p>
+     */
+    @SinceApi(API_103)
+    final class HookFilter {
         /**
-         * Any exception thrown by the <b>hooker</b> will be caught and logged, and the call will proceed as
-         * if no hook exists. This mode is recommended for most cases, as it can prevent crashes caused by
-         * hook errors.
-         * <p>
-         * If the exception is thrown before {@link Chain#proceed()}, the framework will
-         * continue the chain without the hook; if the exception is thrown after proceed, the framework
-         * will return the value / exception proceeded as the result.
-         * </p>
-         * <p>Exceptions thrown by proceed will always be propagated.</p>
+         * Kind of the condition of a filter.
          */
-        PROTECTIVE,
+        public enum Kind {
+            /**
+             * The receiver is an instance of a type. Static methods never pass.
+             */
+            RECEIVER_TYPE,
+
+            /**
+             * An argument is the same object as a value, compared with {@code ==}. Not applicable to
+             * primitive parameters, whose boxed values have no reliable identity.
+             */
+            ARGUMENT_SAME,
+
+            /**
+             * An argument equals a value, compared with {@link Objects#equals(Object, Object)}.
+             * Primitive arguments are compared in their boxed form, so the value must be of the
+             * wrapper type of the parameter.
+             */
+            ARGUMENT_EQUALS,
+
+            /**
+             * The call is made on a given thread.
+             */
+            THREAD,
+        }
+
+        private final Kind mKind;
+        private final int mIndex;
+        private final Object mValue;
+
+        private HookFilter(Kind kind, int index, Object value) {
+            mKind = kind;
+            mIndex = index;
+            mValue = value;
+        }
 
         /**
-         * Any exception thrown by the hooker will be propagated to the caller as usual. This mode is
-         * recommended for debugging purposes, as it can help you find and fix errors in your hooks.
+         * Creates a filter that passes if the receiver is an instance of the given type.
+         *
+         * @param type The type of the receiver
+         * @return The filter
          */
-        PASSTHROUGH,
-    }
+        @NonNull
+        public static HookFilter receiverType(@NonNull Class<?> type) {
+            return new HookFilter(Kind.RECEIVER_TYPE, -1, Objects.requireNonNull(type));
+        }
 
-    /**
-     * Builder for configuring a hook.
-     */
-    interface HookBuilder {
         /**
-         * Sets the priority of the hook. Hooks with higher priority will be called before hooks with lower
-         * priority. The default priority is {@link XposedInterface#PRIORITY_DEFAULT}.
+         * Creates a filter that passes if an argument is the same object as the given value.
          *
-         * @param priority The priority of the hook
-         * @return The builder itself for chaining
+         * @param index The index of the argument
+         * @param value The value
+         * @return The filter
+         * @throws IllegalArgumentException if index is negative
          */
-        HookBuilder setPriority(int priority);
+        @NonNull
+        public static HookFilter argumentSame(int index, @Nullable Object value) {
+            return new HookFilter(Kind.ARGUMENT_SAME, checkIndex(index), value);
+        }
 
         /**
-         * Sets the exception handling mode for the hook. The default mode is {@link ExceptionMode#DEFAULT}.
+         * Creates a filter that passes if an argument equals the given value.
          *
-         * @param mode The exception handling mode
-         * @return The builder itself for chaining
+         * @param index The index of the argument
+         * @param value The value
+         * @return The filter
+         * @throws IllegalArgumentException if index is negative
          */
-        HookBuilder setExceptionMode(@NonNull ExceptionMode mode);
+        @NonNull
+        public static HookFilter argumentEquals(int index, @Nullable Object value) {
+            return new HookFilter(Kind.ARGUMENT_EQUALS, checkIndex(index), value);
+        }
+
+        /**
+         * Creates a filter that passes if the call is made on the given thread, such as the main
+         * thread of the app.
+         *
+         * @param thread The calling thread
+         * @return The filter
+         */
+        @NonNull
+        public static HookFilter thread(@NonNull Thread thread) {
+            return new HookFilter(Kind.THREAD, -1, Objects.requireNonNull(thread));
+        }
+
+        private static int checkIndex(int index) {
+            if (index < 0) {
+                throw new IllegalArgumentException("Negative argument index: " + index);
+            }
+            return index;
+        }
+
+        /**
+         * Checks whether the filter can be applied to an executable. Argument values are compared in
+         * their boxed form, so a value of another type never passes silently, for example an
+         * {@link Integer} compared with a {@code long} parameter.
+         * <ul>
+         *     <li>A receiver filter is not applicable to static methods.</li>
+         *     <li>An argument filter requires the index to be in range of the parameters.</li>
+         *     <li>An argument filter on a primitive parameter requires a value of its wrapper type,
+         *     such as {@link Long} for {@code long}, and must compare with equality.</li>
+         *     <li>An argument filter on a reference parameter requires a value that is {@code null}
+         *     or an instance of the parameter type.</li>
+         * </ul>
+         *
+         * @param executable The hooked method / constructor
+         * @return {@code true} if the filter is applicable
+         */
+        public boolean isApplicableTo(@NonNull Executable executable) {
+            return switch (mKind) {
+                case RECEIVER_TYPE -> !Modifier.isStatic(executable.getModifiers());
+                case ARGUMENT_SAME, ARGUMENT_EQUALS -> isApplicableToParameters(executable.getParameterTypes());
+                case THREAD -> true;
+            };
+        }
+
+        private boolean isApplicableToParameters(Class<?>[] parameterTypes) {
+            if (mIndex >= parameterTypes.length) {
+                return false;
+            }
+            Class<?> type = parameterTypes[mIndex];
+            if (!type.isPrimitive()) {
+                return mValue == null || type.isInstance(mValue);
+            }
+            return mKind == Kind.ARGUMENT_EQUALS && mValue != null && mValue.getClass() == wrapperOf(type);
+        }
+
+        private static Class<?> wrapperOf(Class<?> type) {
+            if (type == int.class) return Integer.class;
+            if (type == long.class) return Long.class;
+            if (type == boolean.class) return Boolean.class;
+            if (type == byte.class) return Byte.class;
+            if (type == char.class) return Character.class;
+            if (type == short.class) return Short.class;
+            if (type == float.class) return Float.class;
+            if (type == double.class) return Double.class;
+            return Void.class;
+        }
+
+        /**
+         * Gets the kind of the condition.
+         */
+        @NonNull
+        public Kind getKind() {
+            return mKind;
+        }
+
+        /**
+         * Gets the index of the argument checked, or {@code -1} if the filter does not check an argument.
+         */
+        public int getIndex() {
+            return mIndex;
+        }
+
+        /**
+         * Gets the value compared with, which is the type, the argument value or the thread depending
+         * on the kind.
+         */
+        @Nullable
+        public Object getValue() {
+            return mValue;
+        }
+
+        /**
+         * Checks the filter against a call. An argument filter whose index is out of range of the
+         * arguments never passes.
+         *
+         * @param thisObject The receiver, or {@code null} for static methods
+         * @param args       The arguments
+         * @return {@code true} if the filter passes
+         */
+        public boolean test(@Nullable Object thisObject, @NonNull Object[] args) {
+            return switch (mKind) {
+                case RECEIVER_TYPE -> ((Class<?>) mValue).isInstance(thisObject);
+                case ARGUMENT_SAME -> mIndex < args.length && args[mIndex] == mValue;
+                case ARGUMENT_EQUALS -> mIndex < args.length && Objects.equals(mValue, args[mIndex]);
+                case THREAD -> Thread.currentThread() == mValue;
+            };
+        }
+    }
+
+    /**
+     * Exception handling mode for hookers. This determines how the framework handles exceptions
+     * thrown by hookers. The default mode is {@link ExceptionMode#DEFAULT}.
+     */
+    enum ExceptionMode {
+        /**
+         * Follows the global exception mode configured in {@code module.prop}. Defaults to {@link #PROTECTIVE}
+         * if not specified.
+         */
+        DEFAULT,
+
+        /**
+         * Any exception thrown by the <b>hooker</b> will be caught and logged, and the call will proceed as
+         * if no hook exists. This mode is recommended for most cases, as it can prevent crashes caused by
+         * hook errors.
+         * <p>
+         * If the exception is thrown before {@link Chain#proceed()}, the framework will
+         * continue the chain without the hook; if the exception is thrown after proceed, the framework
+         * will return the value / exception proceeded as the result.
+         * </p>
+         * <p>Exceptions thrown by proceed will always be propagated.</p>
+         */
+        PROTECTIVE,
+
+        /**
+         * Any exception thrown by the hooker will be propagated to the caller as usual. This mode is
+         * recommended for debugging purposes, as it can help you find and fix errors in your hooks.
+         */
+        PASSTHROUGH,
+    }
+
+    /**
+     * Result of deoptimizing a method / constructor.
+     */
+    @SinceApi(API_103)
+    enum DeoptimizeResult {
+        /**
+         * The executable was already running in the interpreter, so no deoptimization was needed.
+         */
+        ALREADY_INTERPRETED,
+
+        /**
+         * The executable was compiled and has been deoptimized.
+         */
+        DEOPTIMIZED,
+
+        /**
+         * The executable could not be deoptimized.
+         */
+        FAILED,
+    }
+
+    /**
+     * Policy of an asynchronous {@link Logger} when its buffer is full.
+     */
+    @SinceApi(API_103)
+    enum LogOverflowPolicy {
+        /**
+         * Drops the message being logged. This is the default policy.
+         */
+        DROP_NEWEST,
+
+        /**
+         * Drops the oldest message in the buffer to make room for the message being logged.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Blocks the logging thread until there is room in the buffer. This keeps all messages but
+         * should not be used on latency sensitive threads.
+         */
+        BLOCK,
+    }
+
+    /**
+     * Asynchronous logger writing to the Xposed log with a fixed tag. Messages are put into a bounded
+     * lock-free buffer and delivered to the framework in batches on a background thread, so logging
+     * does not pay the cost of writing the log inline. Logger objects are thread safe.
+     */
+    @SinceApi(API_103)
+    interface Logger {
+        /**
+         * Gets the tag of the logger.
+         */
+        @Nullable
+        String getTag();
+
+        /**
+         * Queues a message to the Xposed log.
+         *
+         * @param priority The log priority, see {@link android.util.Log}
+         * @param msg      The log message
+         */
+        void log(int priority, @NonNull String msg);
+
+        /**
+         * Queues a message to the Xposed log.
+         *
+         * @param priority The log priority, see {@link android.util.Log}
+         * @param msg      The log message
+         * @param tr       An exception to log
+         */
+        void log(int priority, @NonNull String msg, @Nullable Throwable tr);
+
+        /**
+         * Checks whether messages with the given priority are written to the Xposed log.
+         *
+         * @param priority The log priority, see {@link android.util.Log}
+         * @return {@code true} if messages with the given priority are loggable
+         * @see XposedInterface#isLoggable(int, String)
+         */
+        boolean isLoggable(int priority);
+
+        /**
+         * Blocks until all messages queued before this call are delivered to the framework.
+         */
+        void flush();
+
+        /**
+         * Gets the number of messages dropped because the buffer was full.
+         */
+        long getDroppedCount();
+    }
+
+    /**
+     * Immutable snapshot of a remote preference group. The framework publishes a new snapshot
+     * atomically whenever the module app changes the group, so reading values from a snapshot needs
+     * no locking and is safe from any thread.
+     */
+    @SinceApi(API_103)
+    interface PreferencesSnapshot {
+        /**
+         * Gets the generation of the snapshot. Generations of the same group increase monotonically
+         * whenever a new snapshot is published, so hooks can cache config derived from a snapshot and
+         * only recompute it when the generation changes.
+         */
+        long getGeneration();
+
+        /**
+         * Checks whether the snapshot contains a preference.
+         *
+         * @param key The name of the preference
+         * @return {@code true} if the preference exists
+         */
+        boolean contains(@NonNull String key);
+
+        /**
+         * Gets a {@code boolean} value from the snapshot.
+         *
+         * @param key      The name of the preference
+         * @param defValue The value to return if the preference does not exist
+         * @return The preference value, or defValue
+         * @throws ClassCastException if there is a preference with this name that is not a {@code boolean}
+         */
+        boolean getBoolean(@NonNull String key, boolean defValue);
+
+        /**
+         * Gets an {@code int} value from the snapshot.
+         *
+         * @param key      The name of the preference
+         * @param defValue The value to return if the preference does not exist
+         * @return The preference value, or defValue
+         * @throws ClassCastException if there is a preference with this name that is not an {@code int}
+         */
+        int getInt(@NonNull String key, int defValue);
+
+        /**
+         * Gets a {@code long} value from the snapshot.
+         *
+         * @param key      The name of the preference
+         * @param defValue The value to return if the preference does not exist
+         * @return The preference value, or defValue
+         * @throws ClassCastException if there is a preference with this name that is not a {@code long}
+         */
+        long getLong(@NonNull String key, long defValue);
+
+        /**
+         * Gets a {@code float} value from the snapshot.
+         *
+         * @param key      The name of the preference
+         * @param defValue The value to return if the preference does not exist
+         * @return The preference value, or defValue
+         * @throws ClassCastException if there is a preference with this name that is not a {@code float}
+         */
+        float getFloat(@NonNull String key, float defValue);
+
+        /**
+         * Gets a {@link String} value from the snapshot.
+         *
+         * @param key      The name of the preference
+         * @param defValue The value to return if the preference does not exist
+         * @return The preference value, or defValue
+         * @throws ClassCastException if there is a preference with this name that is not a {@link String}
+         */
+        @Nullable
+        String getString(@NonNull String key, @Nullable String defValue);
+
+        /**
+         * Gets a set of {@link String} values from the snapshot. The returned set is immutable.
+         *
+         * @param key       The name of the preference
+         * @param defValues The values to return if the preference does not exist
+         * @return The preference values, or defValues
+         * @throws ClassCastException if there is a preference with this name that is not a {@link Set}
+         */
+        @Nullable
+        Set<String> getStringSet(@NonNull String key, @Nullable Set<String> defValues);
+
+        /**
+         * Gets all values in the snapshot. The returned map is immutable.
+         */
+        @NonNull
+        Map<String, ?> getAll();
+    }
+
+    /**
+     * Metadata of a file in the module's shared data directory.
+     *
+     * @param name        The file name
+     * @param size        The file size in bytes
+     * @param generation  The modification generation of the file. It increases monotonically whenever
+     *                    the file is changed, so comparing generations is enough to detect changes.
+     * @param contentHash The hex-encoded SHA-256 digest of the file content
+     */
+    @SinceApi(API_103)
+    record RemoteFileInfo(@NonNull String name, long size, long generation, @NonNull String contentHash) {
+    }
+
+    /**
+     * Result of opening a file in {@link #openRemoteFiles(Collection)}. Exactly one of
+     * {@code descriptor} and {@code error} is non-null.
+     *
+     * @param name       The file name
+     * @param descriptor The file descriptor opened in read-only mode, or {@code null} if the file
+     *                   cannot be opened. The caller is responsible for closing it.
+     * @param error      The reason why the file cannot be opened, or {@code null} if it is opened
+     */
+    @SinceApi(API_103)
+    record RemoteFileResult(@NonNull String name, @Nullable ParcelFileDescriptor descriptor, @Nullable FileNotFoundException error) {
+    }
+
+    /**
+     * Listener for changes of files in the module's shared data directory.
+     */
+    @SinceApi(API_103)
+    interface RemoteFileListener {
+        /**
+         * Called on a framework background thread when a file is created, changed or deleted.
+         *
+         * @param name The file name
+         * @param info The new metadata of the file, or {@code null} if the file has been deleted
+         */
+        void onRemoteFileChanged(@NonNull String name, @Nullable RemoteFileInfo info);
+    }
+
+    /**
+     * Builder for configuring a hook.
+     */
+    interface HookBuilder {
+        /**
+         * Sets the priority of the hook. Hooks with higher priority will be called before hooks with lower
+         * priority. The default priority is {@link XposedInterface#PRIORITY_DEFAULT}.
+         *
+         * @param priority The priority of the hook
+         * @return The builder itself for chaining
+         */
+        HookBuilder setPriority(int priority);
+
+        /**
+         * Sets the exception handling mode for the hook. The default mode is {@link ExceptionMode#DEFAULT}.
+         *
+         * @param mode The exception handling mode
+         * @return The builder itself for chaining
+         */
+        HookBuilder setExceptionMode(@NonNull ExceptionMode mode);
+
+        /**
+         * Enables invocation metrics for the hook, default to {@code false}. The framework records
+         * metrics with cheap contention-free counters, but the timing still adds a small overhead to
+         * every call, so it is intended for diagnosing hooks rather than being always on.
+         *
+         * @param enabled Whether to record metrics
+         * @return The builder itself for chaining
+         * @see HookHandle#getMetrics()
+         */
+        @SinceApi(API_103)
+        HookBuilder setMetricsEnabled(boolean enabled);
+
+        /**
+         * Adds a filter checked before entering the hooker. The hooker is only entered for calls
+         * passing all filters of the hook; other calls skip the hook.
+         *
+         * @param filter The filter
+         * @return The builder itself for chaining
+         * @throws IllegalArgumentException if the filter is not applicable to the hooked executable,
+         *                                  see {@link HookFilter#isApplicableTo(Executable)}
+         */
+        @SinceApi(API_103)
+        HookBuilder addFilter(@NonNull HookFilter filter);
 
         /**
          * Sets the hooker for the method / constructor and builds the hook.
@@ -408,6 +1282,305 @@ public interface XposedInterface {
         HookBuilder setId(@Nullable String id);
     }
 
+    /**
+     * Handle for a deferred hook, which is installed when the target class is linked.
+     */
+    @SinceApi(API_103)
+    interface DeferredHookHandle {
+        /**
+         * Gets the binary name of the target class.
+         */
+        @NonNull
+        String getClassName();
+
+        /**
+         * Gets the handle of the installed hook, or {@code null} if the target class has not been
+         * linked yet or the deferred hook has been cancelled.
+         */
+        @Nullable
+        HookHandle getHookHandle();
+
+        /**
+         * Cancels the deferred hook. If the hook has already been installed, it is unhooked as well.
+         * This method is idempotent. It is safe to call this method multiple times.
+         */
+        void unhook();
+    }
+
+    /**
+     * Builder for configuring a deferred hook. The configuration is the same as {@link HookBuilder},
+     * except that the hook is installed when the target class is linked.
+     */
+    @SinceApi(API_103)
+    interface DeferredHookBuilder {
+        /**
+         * Sets the priority of the hook.
+         *
+         * @param priority The priority of the hook
+         * @return The builder itself for chaining
+         * @see HookBuilder#setPriority(int)
+         */
+        DeferredHookBuilder setPriority(int priority);
+
+        /**
+         * Sets the exception handling mode for the hook.
+         *
+         * @param mode The exception handling mode
+         * @return The builder itself for chaining
+         * @see HookBuilder#setExceptionMode(ExceptionMode)
+         */
+        DeferredHookBuilder setExceptionMode(@NonNull ExceptionMode mode);
+
+        /**
+         * Sets a unique id for the hook.
+         *
+         * @param id The id for the hook
+         * @return The builder itself for chaining
+         * @see HookBuilder#setId(String)
+         */
+        DeferredHookBuilder setId(@Nullable String id);
+
+        /**
+         * Enables invocation metrics for the hook.
+         *
+         * @param enabled Whether to record metrics
+         * @return The builder itself for chaining
+         * @see HookBuilder#setMetricsEnabled(boolean)
+         */
+        DeferredHookBuilder setMetricsEnabled(boolean enabled);
+
+        /**
+         * Adds a filter checked before entering the hooker. The filter is validated when the target
+         * class is linked; if it is not applicable to the target member, the deferred hook fails as if
+         * the member did not exist.
+         *
+         * @param filter The filter
+         * @return The builder itself for chaining
+         * @see HookBuilder#addFilter(HookFilter)
+         */
+        DeferredHookBuilder addFilter(@NonNull HookFilter filter);
+
+        /**
+         * Sets the hooker and registers the deferred hook. If the target class is already linked by the
+         * classloader, the hook is installed immediately. Otherwise, it is installed when the class is
+         * linked, before the class is initialized.
+         * <p>
+         * If the target member does not exist when the class is linked, or the hook fails to be
+         * installed, the framework logs the error and cancels the deferred hook.
+         * </p>
+         *
+         * @param hooker The hooker object
+         * @return The handle for the deferred hook
+         * @throws IllegalArgumentException if hooker is invalid
+         */
+        @NonNull
+        DeferredHookHandle intercept(@NonNull Hooker hooker);
+    }
+
+    /**
+     * Handle for a selector hook, which hooks every method matching a selector.
+     */
+    @SinceApi(API_103)
+    interface SelectorHookHandle {
+        /**
+         * Gets the handles of the hooks installed so far. The list grows as matching classes are
+         * loaded.
+         *
+         * @return A snapshot of the installed hook handles
+         */
+        @NonNull
+        List<HookHandle> getHookHandles();
+
+        /**
+         * Stops matching classes loaded later and unhooks all installed hooks atomically.
+         * This method is idempotent. It is safe to call this method multiple times.
+         */
+        void unhook();
+    }
+
+    /**
+     * Builder for a selector hook. The criteria set on the builder form a selector, and the hook is
+     * installed on every method matching all criteria. Abstract methods never match. The configuration
+     * of the hooks is the same as {@link HookBuilder}.
+     */
+    @SinceApi(API_103)
+    interface SelectorHookBuilder {
+        /**
+         * Matches methods declared by classes whose binary name starts with the given prefix, such as
+         * {@code com.example.}.
+         *
+         * @param prefix The prefix of the declaring class name
+         * @return The builder itself for chaining
+         */
+        SelectorHookBuilder setClassPrefix(@NonNull String prefix);
+
+        /**
+         * Matches methods with the given name.
+         *
+         * @param name The method name
+         * @return The builder itself for chaining
+         */
+        SelectorHookBuilder setName(@NonNull String name);
+
+        /**
+         * Matches methods with exactly the given parameter types.
+         *
+         * @param parameterTypes The parameter types
+         * @return The builder itself for chaining
+         */
+        SelectorHookBuilder setParameterTypes(@NonNull Class<?>... parameterTypes);
+
+        /**
+         * Matches the given method and all methods overriding it in subclasses of its declaring class.
+         * This implies the name and parameter types of the given method.
+         *
+         * @param base The overridden method
+         * @return The builder itself for chaining
+         * @throws IllegalArgumentException if base is static, private or final, so it cannot be overridden
+         */
+        SelectorHookBuilder setOverriding(@NonNull Method base);
+
+        /**
+         * Sets the priority of the hooks.
+         *
+         * @param priority The priority of the hooks
+         * @return The builder itself for chaining
+         * @see HookBuilder#setPriority(int)
+         */
+        SelectorHookBuilder setPriority(int priority);
+
+        /**
+         * Sets the exception handling mode for the hooks.
+         *
+         * @param mode The exception handling mode
+         * @return The builder itself for chaining
+         * @see HookBuilder#setExceptionMode(ExceptionMode)
+         */
+        SelectorHookBuilder setExceptionMode(@NonNull ExceptionMode mode);
+
+        /**
+         * Enables invocation metrics for each of the hooks.
+         *
+         * @param enabled Whether to record metrics
+         * @return The builder itself for chaining
+         * @see HookBuilder#setMetricsEnabled(boolean)
+         */
+        SelectorHookBuilder setMetricsEnabled(boolean enabled);
+
+        /**
+         * Adds a filter checked before entering the hooker. Methods to which the filter is not
+         * applicable, see {@link HookFilter#isApplicableTo(Executable)}, do not match the selector.
+         *
+         * @param filter The filter
+         * @return The builder itself for chaining
+         * @see HookBuilder#addFilter(HookFilter)
+         */
+        SelectorHookBuilder addFilter(@NonNull HookFilter filter);
+
+        /**
+         * Sets the hooker and registers the selector hook. The framework evaluates the selector in a
+         * single pass over the classes already loaded by the classloader and hooks all matching
+         * methods atomically, with a single publication of the hook chains as in {@link HookBatch}.
+         * Matching methods of classes loaded later are hooked when the class is linked, before the
+         * class is initialized.
+         * <p>
+         * If a matching method fails to be hooked, the framework logs the error and skips the method.
+         * </p>
+         *
+         * @param hooker The hooker object
+         * @return The handle for the selector hook
+         * @throws IllegalArgumentException if hooker is invalid
+         * @throws IllegalStateException    if no criteria is set
+         */
+        @NonNull
+        SelectorHookHandle intercept(@NonNull Hooker hooker);
+    }
+
+    /**
+     * Batch for installing multiple hooks with a single publication of the hook chains. Hooks configured
+     * through the batch are staged and only take effect when {@link #commit()} or
+     * {@link #reconcile(Collection)} is called. A batch
+     * object cannot be shared among threads and can only be committed once.
+     *
+     * <p>The publication covers all executables of the batch at once: a call of any executable that
+     * starts after the publication observes all changes of the batch, and a call that starts before it
+     * observes none of them. No call observes only part of a committed batch.</p>
+     */
+    @SinceApi(API_103)
+    interface HookBatch {
+        /**
+         * Stages a hook on a method / constructor. The returned builder works as the one returned by
+         * {@link XposedInterface#hook(Executable)}, except that {@link HookBuilder#intercept(Hooker)} only
+         * stages the hook. The returned handle is not valid until the batch is committed.
+         *
+         * @param origin The executable to be hooked
+         * @return The builder for the hook
+         * @throws IllegalStateException if the batch has been committed
+         */
+        @NonNull
+        HookBuilder hook(@NonNull Executable origin);
+
+        /**
+         * Stages a hook on the static initializer of a class.
+         *
+         * @param origin The class whose static initializer is to be hooked
+         * @return The builder for the hook
+         * @throws IllegalStateException if the batch has been committed
+         * @see XposedInterface#hookClassInitializer(Class)
+         */
+        @NonNull
+        HookBuilder hookClassInitializer(@NonNull Class<?> origin);
+
+        /**
+         * Installs all staged hooks atomically. Either all hooks take effect or none of them does.
+         *
+         * <p>The hook chain is snapshot based. Calls running while the batch is committed keep using
+         * the snapshot that was active when they started.</p>
+         *
+         * @return The handles of the installed hooks, in the order they were staged. They are the same
+         * objects returned from {@link HookBuilder#intercept(Hooker)} of the staged builders.
+         * @throws IllegalArgumentException if any staged origin is framework internal or
+         *                                  {@link Constructor#newInstance}, or any hooker is invalid
+         * @throws IllegalStateException    if the batch has been committed
+         * @throws HookFailedError          if hook fails due to framework internal error
+         */
+        @NonNull
+        List<HookHandle> commit();
+
+        /**
+         * Makes the staged hooks the complete desired hook set and applies the difference against the
+         * given old hooks atomically, with a single publication of the hook chains. This is useful in
+         * {@link XposedModuleInterface#onHotReloaded(XposedModuleInterface.HotReloadedParam)} with
+         * {@link XposedModuleInterface.HotReloadedParam#getOldHookHandles()}.
+         * <ul>
+         *     <li>A staged hook with an id that matches an old hook with the same id on the same
+         *     executable replaces the old hook, taking the configuration of the staged hook.</li>
+         *     <li>An old hook not matched by any staged hook is unhooked.</li>
+         *     <li>A staged hook not matching any old hook is installed.</li>
+         * </ul>
+         * <p>Hooks without an id never match. Old handles that are no longer valid are ignored. After a
+         * successful reconciliation, all given old handles are no longer valid. Either all changes take
+         * effect or none of them does.</p>
+         *
+         * <pre>{@code
+         * HookBatch batch = newHookBatch();
+         * batch.hook(method).setId("foo").intercept(hooker);
+         * batch.reconcile(param.getOldHookHandles());
+         * }</pre>
+         *
+         * @param oldHandles The hook handles of the old hook set
+         * @return The handles of the staged hooks, in the order they were staged. They are the same
+         * objects returned from {@link HookBuilder#intercept(Hooker)} of the staged builders.
+         * @throws IllegalArgumentException if any staged origin is framework internal or
+         *                                  {@link Constructor#newInstance}, or any hooker is invalid
+         * @throws IllegalStateException    if the batch has been committed
+         * @throws HookFailedError          if hook fails due to framework internal error
+         */
+        @SinceApi(API_103)
+        @NonNull
+        List<HookHandle> reconcile(@NonNull Collection<? extends HookHandle> oldHandles);
+    }
+
     /**
      * Gets the runtime Xposed API version. Framework implementations <b>must not</b> override this method.
      */
@@ -468,6 +1641,169 @@ public interface XposedInterface {
     @NonNull
     HookBuilder hookClassInitializer(@NonNull Class<?> origin);
 
+    /**
+     * Creates a new batch for installing multiple hooks at once. Installing hooks in a batch costs a
+     * single round trip to the framework, which is preferred when a module installs many hooks during
+     * {@link XposedModuleInterface#onPackageLoaded}.
+     *
+     * <pre>{@code
+     * HookBatch batch = newHookBatch();
+     * for (Method method : methods) {
+     *     batch.hook(method).intercept(hooker);
+     * }
+     * List<HookHandle> handles = batch.commit();
+     * }</pre>
+     *
+     * @return The hook batch
+     */
+    @SinceApi(API_103)
+    @NonNull
+    HookBatch newHookBatch();
+
+    /**
+     * Hook a method / constructor when its declaring class is linked, without loading the class
+     * ahead of time. This avoids forcing app classes to be loaded in
+     * {@link XposedModuleInterface#onPackageLoaded} only to hook them.
+     *
+     * <p>The member is identified by its name and JVM method descriptor. Use {@code <init>} for
+     * constructors and {@code <clinit>} for the static initializer. For example, the method
+     * {@code void baz(int, long)} has the name {@code baz} and the descriptor {@code (IJ)V}.</p>
+     *
+     * @param classLoader The classloader that loads the target class, for example
+     *                    {@link XposedModuleInterface.PackageLoadedParam#getDefaultClassLoader()}
+     * @param className   The binary name of the target class, such as {@code com.example.Foo$Bar}
+     * @param name        The name of the member
+     * @param descriptor  The JVM method descriptor of the member
+     * @return The builder for the deferred hook
+     * @throws IllegalArgumentException if the descriptor is malformed
+     */
+    @SinceApi(API_103)
+    @NonNull
+    DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String className, @NonNull String name, @NonNull String descriptor);
+
+    /**
+     * Hook a method / constructor when its declaring class is linked, identifying the member by its
+     * descriptor in smali notation, the same notation as {@link #resolveMethod(ClassLoader, String)}
+     * and {@link XposedModuleInterface.TargetCache}. For example, {@code Lcom/example/Foo;->baz(IJ)V}
+     * is equivalent to the class name {@code com.example.Foo}, the name {@code baz} and the
+     * descriptor {@code (IJ)V}. Use {@code <init>} for constructors and {@code <clinit>} for the
+     * static initializer.
+     *
+     * @param classLoader The classloader that loads the target class
+     * @param descriptor  The descriptor of the member in smali notation
+     * @return The builder for the deferred hook
+     * @throws IllegalArgumentException if the descriptor is malformed
+     * @see #hookDeferred(ClassLoader, String, String, String)
+     */
+    @SinceApi(API_103)
+    @NonNull
+    DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String descriptor);
+
+    /**
+     * Hooks all methods matching a selector among the classes defined by a classloader, including
+     * classes loaded later. This replaces enumerating classes and hooking their methods one by one,
+     * for example to hook every {@code onCreate} override of the activities in a package:
+     *
+     * <pre>{@code
+     * hookMatching(classLoader)
+     *         .setClassPrefix("com.example.")
+     *         .setOverriding(Activity.class.getDeclaredMethod("onCreate", Bundle.class))
+     *         .intercept(hooker);
+     * }</pre>
+     *
+     * @param classLoader The classloader whose classes are matched
+     * @return The builder for the selector hook
+     */
+    @SinceApi(API_103)
+    @NonNull
+    SelectorHookBuilder hookMatching(@NonNull ClassLoader classLoader);
+
+    /**
+     * Resolves a method from its descriptor in smali notation, such as
+     * {@code Lcom/example/Foo;->baz(IJ)V} for the method {@code void baz(int, long)} declared in
+     * {@code com.example.Foo}. Like {@link Class#getDeclaredMethod}, only methods declared by the
+     * class itself are found. The return type is part of the descriptor and must match as well,
+     * which tells bridge methods apart. Resolving does not initialize the declaring class.
+     *
+     * <p>Resolved members are cached by the framework for the lifetime of the process, so the lookup
+     * of each member is paid at most once per process, no matter how many entries resolve it.</p>
+     *
+     * @param classLoader The classloader that loads the declaring class
+     * @param descriptor  The descriptor of the method
+     * @return The resolved method
+     * @throws IllegalArgumentException if the descriptor is malformed or denotes a constructor
+     * @throws ClassNotFoundException   if the declaring class is not found
+     * @throws NoSuchMethodException    if the method is not found
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Method resolveMethod(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException;
+
+    /**
+     * Resolves a constructor from its descriptor in smali notation, such as
+     * {@code Lcom/example/Foo;-><init>(I)V}. The constructor is cached like
+     * {@link #resolveMethod(ClassLoader, String)}.
+     *
+     * @param classLoader The classloader that loads the declaring class
+     * @param descriptor  The descriptor of the constructor
+     * @return The resolved constructor
+     * @throws IllegalArgumentException if the descriptor is malformed or does not denote a constructor
+     * @throws ClassNotFoundException   if the declaring class is not found
+     * @throws NoSuchMethodException    if the constructor is not found
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Constructor<?> resolveConstructor(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException;
+
+    /**
+     * Resolves multiple methods / constructors in one pass. Each descriptor is resolved as
+     * {@link #resolveMethod(ClassLoader, String)} or {@link #resolveConstructor(ClassLoader, String)}
+     * does, and members sharing a declaring class are looked up together. This is preferred over
+     * resolving the hook targets of a module one by one.
+     *
+     * @param classLoader The classloader that loads the declaring classes
+     * @param descriptors The descriptors of the methods / constructors
+     * @return The map from each resolved descriptor to its executable, iterating in the order of the
+     * given collection; descriptors that cannot be resolved are absent
+     * @throws IllegalArgumentException if any descriptor is malformed
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Map<String, Executable> resolveExecutables(@NonNull ClassLoader classLoader, @NonNull Collection<String> descriptors);
+
+    /**
+     * Cancels multiple hooks atomically with a single publication of the hook chains. Handles that
+     * have already been cancelled or replaced are ignored, like {@link HookHandle#unhook()}.
+     *
+     * <p>The hook chain is snapshot based. Unhooking while a call is running does not affect that
+     * in-flight call. The publication covers all executables at once, as described in
+     * {@link HookBatch}.</p>
+     *
+     * @param handles The hook handles to cancel
+     */
+    @SinceApi(API_103)
+    void unhookAll(@NonNull Collection<? extends HookHandle> handles);
+
+    /**
+     * Atomically replaces multiple hooks with new hookers with a single publication of the hook chains.
+     * Either all hooks are replaced or none of them is. Each replacement behaves as
+     * {@link HookHandle#replaceHook(Hooker)}, and the old handles are no longer valid after a
+     * successful replacement.
+     *
+     * <p>The hook chain is snapshot based. Replacing hooks while a call is running does not affect
+     * that in-flight call. The publication covers all executables at once, as described in
+     * {@link HookBatch}.</p>
+     *
+     * @param replacements The map from the hook handles to be replaced to their new hookers
+     * @return The map from the old hook handles to the new handles
+     * @throws IllegalArgumentException if any hooker is invalid
+     * @throws IllegalStateException    if any hook handle is no longer valid
+     * @throws HookFailedError          if replacement fails due to framework internal error
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Map<HookHandle, HookHandle> replaceHooks(@NonNull Map<? extends HookHandle, ? extends Hooker> replacements);
+
     /**
      * Deoptimizes a method / constructor in case hooked callee is not called because of inline.
      *
@@ -486,6 +1822,18 @@ public interface XposedInterface {
      */
     boolean deoptimize(@NonNull Executable executable);
 
+    /**
+     * Deoptimizes multiple methods / constructors in one pass. This is preferred over calling
+     * {@link #deoptimize(Executable)} for each caller found by scanning.
+     *
+     * @param executables The methods / constructors to deoptimize
+     * @return The map from each executable to its result, iterating in the order of the given collection
+     * @see #deoptimize(Executable)
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Map<Executable, DeoptimizeResult> deoptimize(@NonNull Collection<? extends Executable> executables);
+
     /**
      * Get a method invoker for the given method. Invocations through invokers will bypass access
      * checks. The default type of the invoker is {@link Invoker.Type.Chain#FULL}.
@@ -526,6 +1874,73 @@ public interface XposedInterface {
      */
     void log(int priority, @Nullable String tag, @NonNull String msg, @Nullable Throwable tr);
 
+    /**
+     * Checks whether messages with the given priority and tag are written to the Xposed log. Modules
+     * can use this to skip building log messages that would be filtered out.
+     *
+     * @param priority The log priority, see {@link android.util.Log}
+     * @param tag      The log tag
+     * @return {@code true} if messages with the given priority and tag are loggable
+     */
+    @SinceApi(API_103)
+    boolean isLoggable(int priority, @Nullable String tag);
+
+    /**
+     * Writes a lazily built message to the Xposed log. The supplier is only called if
+     * {@link #isLoggable(int, String)} returns {@code true}.
+     *
+     * @param priority    The log priority, see {@link android.util.Log}
+     * @param tag         The log tag
+     * @param msgSupplier The supplier of the log message
+     */
+    @SinceApi(API_103)
+    default void log(int priority, @Nullable String tag, @NonNull Supplier<String> msgSupplier) {
+        if (isLoggable(priority, tag)) {
+            log(priority, tag, msgSupplier.get());
+        }
+    }
+
+    /**
+     * Writes a lazily built message to the Xposed log. The supplier is only called if
+     * {@link #isLoggable(int, String)} returns {@code true}.
+     *
+     * @param priority    The log priority, see {@link android.util.Log}
+     * @param tag         The log tag
+     * @param msgSupplier The supplier of the log message
+     * @param tr          An exception to log
+     */
+    @SinceApi(API_103)
+    default void log(int priority, @Nullable String tag, @NonNull Supplier<String> msgSupplier, @Nullable Throwable tr) {
+        if (isLoggable(priority, tag)) {
+            log(priority, tag, msgSupplier.get(), tr);
+        }
+    }
+
+    /**
+     * Gets an asynchronous logger with the given tag, the framework default buffer capacity and
+     * {@link LogOverflowPolicy#DROP_NEWEST}.
+     *
+     * @param tag The log tag
+     * @return The logger
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Logger getLogger(@Nullable String tag);
+
+    /**
+     * Gets an asynchronous logger with the given tag, buffer capacity and overflow policy. Each call
+     * creates a logger with its own buffer.
+     *
+     * @param tag      The log tag
+     * @param capacity The maximum number of messages buffered before the overflow policy applies
+     * @param policy   The policy to apply when the buffer is full
+     * @return The logger
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    @SinceApi(API_103)
+    @NonNull
+    Logger getLogger(@Nullable String tag, int capacity, @NonNull LogOverflowPolicy policy);
+
     /**
      * Gets the application info of the module.
      */
@@ -542,6 +1957,39 @@ public interface XposedInterface {
     @NonNull
     SharedPreferences getRemotePreferences(@NonNull String group);
 
+    /**
+     * Gets the latest snapshot of a remote preference group. Getting the snapshot is a single read of
+     * an atomically published reference, so hooks can call it on every invocation.
+     *
+     * @param group Group name
+     * @return The latest snapshot
+     * @throws UnsupportedOperationException If the framework is embedded
+     */
+    @SinceApi(API_103)
+    @NonNull
+    PreferencesSnapshot getRemotePreferencesSnapshot(@NonNull String group);
+
+    /**
+     * Registers a listener that is called with the new snapshot whenever a new snapshot of the remote
+     * preference group is published. The listener is called on a framework background thread.
+     *
+     * @param group    Group name
+     * @param listener The listener
+     * @throws UnsupportedOperationException If the framework is embedded
+     */
+    @SinceApi(API_103)
+    void registerRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener);
+
+    /**
+     * Unregisters a listener registered by {@link #registerRemotePreferencesListener(String, Consumer)}.
+     * This method is idempotent.
+     *
+     * @param group    Group name
+     * @param listener The listener
+     */
+    @SinceApi(API_103)
+    void unregisterRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener);
+
     /**
      * List all files in the module's shared data directory.
      *
@@ -551,6 +1999,47 @@ public interface XposedInterface {
     @NonNull
     String[] listRemoteFiles();
 
+    /**
+     * List the metadata of all files in the module's shared data directory.
+     *
+     * @return The metadata list
+     * @throws UnsupportedOperationException If the framework is embedded
+     */
+    @SinceApi(API_103)
+    @NonNull
+    List<RemoteFileInfo> listRemoteFileInfos();
+
+    /**
+     * Gets the metadata of a file in the module's shared data directory.
+     *
+     * @param name File name, must not contain path separators and . or ..
+     * @return The file metadata
+     * @throws FileNotFoundException         If the file does not exist or the path is forbidden
+     * @throws UnsupportedOperationException If the framework is embedded
+     */
+    @SinceApi(API_103)
+    @NonNull
+    RemoteFileInfo getRemoteFileInfo(@NonNull String name) throws FileNotFoundException;
+
+    /**
+     * Registers a listener for changes of files in the module's shared data directory, so modules can
+     * reload only the files that have changed.
+     *
+     * @param listener The listener
+     * @throws UnsupportedOperationException If the framework is embedded
+     */
+    @SinceApi(API_103)
+    void registerRemoteFileListener(@NonNull RemoteFileListener listener);
+
+    /**
+     * Unregisters a listener registered by {@link #registerRemoteFileListener(RemoteFileListener)}.
+     * This method is idempotent.
+     *
+     * @param listener The listener
+     */
+    @SinceApi(API_103)
+    void unregisterRemoteFileListener(@NonNull RemoteFileListener listener);
+
     /**
      * Open a file in the module's shared data directory. The file is opened in read-only mode.
      *
@@ -561,4 +2050,37 @@ public interface XposedInterface {
      */
     @NonNull
     ParcelFileDescriptor openRemoteFile(@NonNull String name) throws FileNotFoundException;
+
+    /**
+     * Open multiple files in the module's shared data directory in a single request. The files are
+     * opened in read-only mode. A file that cannot be opened does not fail the other files; its error
+     * is reported in the corresponding result instead.
+     *
+     * @param names File names, must not contain path separators and . or ..
+     * @return The results, in the order of the given names
+     * @throws UnsupportedOperationException If the framework is embedded
+     * @see #openRemoteFile(String)
+     */
+    @SinceApi(API_103)
+    @NonNull
+    List<RemoteFileResult> openRemoteFiles(@NonNull Collection<String> names);
+
+    /**
+     * Memory-maps a file in the module's shared data directory in read-only mode. The content is
+     * not copied onto the Java heap.
+     *
+     * <p>The framework keeps one mapping per file in the process, shared by all entries of the module.
+     * Each call returns a new read-only buffer view of that mapping with independent position and limit.
+     * If the file has been changed since it was mapped, a new mapping is created, and previously
+     * returned buffers keep the old content.</p>
+     *
+     * @param name File name, must not contain path separators and . or ..
+     * @return The read-only buffer backed by the mapped file
+     * @throws FileNotFoundException         If the file does not exist or the path is forbidden
+     * @throws IOException                   If the file cannot be mapped
+     * @throws UnsupportedOperationException If the framework is embedded
+     */
+    @SinceApi(API_103)
+    @NonNull
+    ByteBuffer mapRemoteFile(@NonNull String name) throws IOException;
 }
@@ -8,9 +8,16 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import io.github.libxposed.annotation.InternalApi;
 import io.github.libxposed.annotation.SinceApi;
@@ -21,11 +28,14 @@ import io.github.libxposed.annotation.SinceApi;
 public class XposedInterfaceWrapper implements XposedInterface {
 
     private XposedInterface mBase;
+    private volatile XposedInterface mFramework;
     private Runnable mDetachImpl;
 
     /**
      * Attaches the framework interface to the module. Modules <b>must not</b> call this method.
      * It is reserved for framework implementations and may change without compatibility guarantees.
+     * The framework must attach before invoking any lifecycle callback of the entry, so that the
+     * module never observes the entry unattached.
      *
      * @param base       The framework interface
      * @param detachImpl The implementation of {@link #detach()}
@@ -38,6 +48,7 @@ public class XposedInterfaceWrapper implements XposedInterface {
         }
         mBase = base;
         mDetachImpl = detachImpl;
+        mFramework = new FrameworkDelegate(base);
     }
 
     private void ensureAttached() {
@@ -84,6 +95,31 @@ public class XposedInterfaceWrapper implements XposedInterface {
         mDetachImpl.run();
     }
 
+    /**
+     * Gets a check-free view of the framework interface. Calls on the returned interface are
+     * delegated to the framework without the attach check done by this wrapper on every call. Like
+     * this wrapper, the returned interface shields the framework implementation from the module.
+     *
+     * <p>The returned interface holds the framework in a {@code final} field, so it is safely
+     * published to any thread, even through a data race. The API version and framework information
+     * are read once when the framework attaches, and returned without calling the framework. Modules
+     * that call the framework on hot paths, such as from hookers, can obtain it once in
+     * {@link XposedModuleInterface#onModuleLoaded} and keep it in a field of the objects that use it.
+     * It stays valid for the lifetime of the module, including after {@link #detach()}.</p>
+     *
+     * @return The framework interface
+     * @throws IllegalStateException If the framework is not attached
+     */
+    @SinceApi(API_103)
+    @NonNull
+    public final XposedInterface getFramework() {
+        XposedInterface framework = mFramework;
+        if (framework == null) {
+            throw new IllegalStateException("Framework not attached");
+        }
+        return framework;
+    }
+
     @Override
     public final int getApiVersion() {
         ensureAttached();
@@ -130,12 +166,81 @@ public class XposedInterfaceWrapper implements XposedInterface {
         return mBase.hookClassInitializer(origin);
     }
 
+    @NonNull
+    @Override
+    public final HookBatch newHookBatch() {
+        ensureAttached();
+        return mBase.newHookBatch();
+    }
+
+    @NonNull
+    @Override
+    public final DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String className, @NonNull String name, @NonNull String descriptor) {
+        ensureAttached();
+        return mBase.hookDeferred(classLoader, className, name, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public final DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String descriptor) {
+        ensureAttached();
+        return mBase.hookDeferred(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public final SelectorHookBuilder hookMatching(@NonNull ClassLoader classLoader) {
+        ensureAttached();
+        return mBase.hookMatching(classLoader);
+    }
+
+    @NonNull
+    @Override
+    public final Method resolveMethod(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        ensureAttached();
+        return mBase.resolveMethod(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public final Constructor<?> resolveConstructor(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        ensureAttached();
+        return mBase.resolveConstructor(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public final Map<String, Executable> resolveExecutables(@NonNull ClassLoader classLoader, @NonNull Collection<String> descriptors) {
+        ensureAttached();
+        return mBase.resolveExecutables(classLoader, descriptors);
+    }
+
+    @Override
+    public final void unhookAll(@NonNull Collection<? extends HookHandle> handles) {
+        ensureAttached();
+        mBase.unhookAll(handles);
+    }
+
+    @NonNull
+    @Override
+    public final Map<HookHandle, HookHandle> replaceHooks(@NonNull Map<? extends HookHandle, ? extends Hooker> replacements) {
+        ensureAttached();
+        return mBase.replaceHooks(replacements);
+    }
+
     @Override
     public final boolean deoptimize(@NonNull Executable executable) {
         ensureAttached();
         return mBase.deoptimize(executable);
     }
 
+    @NonNull
+    @Override
+    public final Map<Executable, DeoptimizeResult> deoptimize(@NonNull Collection<? extends Executable> executables) {
+        ensureAttached();
+        return mBase.deoptimize(executables);
+    }
+
     @NonNull
     @Override
     public final Invoker<?, Method> getInvoker(@NonNull Method method) {
@@ -162,6 +267,38 @@ public class XposedInterfaceWrapper implements XposedInterface {
         mBase.log(priority, tag, msg, tr);
     }
 
+    @Override
+    public final boolean isLoggable(int priority, @Nullable String tag) {
+        ensureAttached();
+        return mBase.isLoggable(priority, tag);
+    }
+
+    @Override
+    public final void log(int priority, @Nullable String tag, @NonNull Supplier<String> msgSupplier) {
+        ensureAttached();
+        mBase.log(priority, tag, msgSupplier);
+    }
+
+    @Override
+    public final void log(int priority, @Nullable String tag, @NonNull Supplier<String> msgSupplier, @Nullable Throwable tr) {
+        ensureAttached();
+        mBase.log(priority, tag, msgSupplier, tr);
+    }
+
+    @NonNull
+    @Override
+    public final Logger getLogger(@Nullable String tag) {
+        ensureAttached();
+        return mBase.getLogger(tag);
+    }
+
+    @NonNull
+    @Override
+    public final Logger getLogger(@Nullable String tag, int capacity, @NonNull LogOverflowPolicy policy) {
+        ensureAttached();
+        return mBase.getLogger(tag, capacity, policy);
+    }
+
     @NonNull
     @Override
     public final SharedPreferences getRemotePreferences(@NonNull String name) {
@@ -169,6 +306,25 @@ public class XposedInterfaceWrapper implements XposedInterface {
         return mBase.getRemotePreferences(name);
     }
 
+    @NonNull
+    @Override
+    public final PreferencesSnapshot getRemotePreferencesSnapshot(@NonNull String group) {
+        ensureAttached();
+        return mBase.getRemotePreferencesSnapshot(group);
+    }
+
+    @Override
+    public final void registerRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener) {
+        ensureAttached();
+        mBase.registerRemotePreferencesListener(group, listener);
+    }
+
+    @Override
+    public final void unregisterRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener) {
+        ensureAttached();
+        mBase.unregisterRemotePreferencesListener(group, listener);
+    }
+
     @NonNull
     @Override
     public final ApplicationInfo getModuleApplicationInfo() {
@@ -183,10 +339,50 @@ public class XposedInterfaceWrapper implements XposedInterface {
         return mBase.listRemoteFiles();
     }
 
+    @NonNull
+    @Override
+    public final List<RemoteFileInfo> listRemoteFileInfos() {
+        ensureAttached();
+        return mBase.listRemoteFileInfos();
+    }
+
+    @NonNull
+    @Override
+    public final RemoteFileInfo getRemoteFileInfo(@NonNull String name) throws FileNotFoundException {
+        ensureAttached();
+        return mBase.getRemoteFileInfo(name);
+    }
+
+    @Override
+    public final void registerRemoteFileListener(@NonNull RemoteFileListener listener) {
+        ensureAttached();
+        mBase.registerRemoteFileListener(listener);
+    }
+
+    @Override
+    public final void unregisterRemoteFileListener(@NonNull RemoteFileListener listener) {
+        ensureAttached();
+        mBase.unregisterRemoteFileListener(listener);
+    }
+
     @NonNull
     @Override
     public final ParcelFileDescriptor openRemoteFile(@NonNull String name) throws FileNotFoundException {
         ensureAttached();
         return mBase.openRemoteFile(name);
     }
+
+    @NonNull
+    @Override
+    public final List<RemoteFileResult> openRemoteFiles(@NonNull Collection<String> names) {
+        ensureAttached();
+        return mBase.openRemoteFiles(names);
+    }
+
+    @NonNull
+    @Override
+    public final ByteBuffer mapRemoteFile(@NonNull String name) throws IOException {
+        ensureAttached();
+        return mBase.mapRemoteFile(name);
+    }
 }
@@ -1,9 +1,25 @@
 package io.github.libxposed.api;
 
+import androidx.annotation.NonNull;
+
+import io.github.libxposed.annotation.SinceApi;
+
 /**
  * Super class which all Xposed module entry classes should extend.<br/>
  * Entry classes will be instantiated once for each loaded module generation in a process.
  */
 @SuppressWarnings("unused")
 public abstract class XposedModule extends XposedInterfaceWrapper implements XposedModuleInterface {
+    /**
+     * Gets notified when the module has been reloaded. The default implementation unhooks all old
+     * hooks atomically.
+     *
+     * @param param Information about the hot reloaded event
+     * @see XposedModuleInterface#onHotReloaded(HotReloadedParam)
+     */
+    @SinceApi(API_103)
+    @Override
+    public void onHotReloaded(@NonNull HotReloadedParam param) {
+        unhookAll(param.getOldHookHandles());
+    }
 }
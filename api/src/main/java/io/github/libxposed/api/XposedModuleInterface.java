@@ -10,7 +10,12 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import io.github.libxposed.annotation.SinceApi;
 
@@ -75,6 +80,95 @@ public interface XposedModuleInterface {
         @RequiresApi(Build.VERSION_CODES.Q)
         @NonNull
         ClassLoader getDefaultClassLoader();
+
+        /**
+         * Runs expensive initialization work on a framework background thread while the app keeps
+         * starting. The task receives a {@link XposedInterface.HookBatch} to stage its hooks, and the
+         * framework commits the batch after the task returns, so all hooks of the task become visible
+         * atomically. The task must not commit the batch itself.
+         * <p>
+         * If the task throws, the exception is logged and none of its staged hooks are installed. Calls
+         * of the app that happen before the batch is committed are not intercepted by those hooks.
+         * </p>
+         *
+         * @param task The initialization work
+         * @return The future that completes with the installed hook handles. Waiting on it from the
+         * loading thread blocks app startup and should be avoided.
+         */
+        @SinceApi(XposedInterface.API_103)
+        @NonNull
+        Future<List<XposedInterface.HookHandle>> runInBackground(@NonNull Consumer<XposedInterface.HookBatch> task);
+
+        /**
+         * Gets the persistent cache of the module for the current package. Modules that find their
+         * hook targets by expensive scanning can store the results here once and, in later launches,
+         * resolve them with {@link XposedInterface#resolveExecutables} or hook them without loading
+         * their classes with {@link XposedInterface#hookDeferred(ClassLoader, String)}.
+         *
+         * @return The target cache
+         */
+        @SinceApi(XposedInterface.API_103)
+        @NonNull
+        TargetCache getTargetCache();
+    }
+
+    /**
+     * Persistent cache of a module for one target package, mapping module-defined keys to member
+     * descriptors such as {@code Lcom/example/Foo;->baz(IJ)V}. The cache is stored by the framework
+     * and shared by all processes of the package.
+     * <p>
+     * The cache is bound to the version code and {@link ApplicationInfo#sourceDir} of the package
+     * and to the version of the module. When any of them changes, the framework discards the cache
+     * before the module is loaded, so the module never reads entries computed for another version.
+     * </p>
+     * <p>
+     * Entries are read from a compact binary file mapped into memory, so lookups neither parse nor
+     * copy the whole cache onto the Java heap.
+     * </p>
+     */
+    @SinceApi(XposedInterface.API_103)
+    interface TargetCache {
+        /**
+         * Returns whether the cache has no entries, for example because it has never been written
+         * or it has been discarded after an update.
+         *
+         * @return {@code true} if the cache is empty
+         */
+        boolean isEmpty();
+
+        /**
+         * Gets the descriptor stored with the given key.
+         *
+         * @param key The key of the entry
+         * @return The descriptor, or {@code null} if the key is not in the cache
+         */
+        @Nullable
+        String getDescriptor(@NonNull String key);
+
+        /**
+         * Gets all entries of the cache.
+         *
+         * @return The map from keys to descriptors
+         */
+        @NonNull
+        Map<String, String> getDescriptors();
+
+        /**
+         * Merges the given entries into the cache and persists the result. The cache file is replaced
+         * atomically, so other processes see either the old or the new entries. When processes of
+         * the package write concurrently, the last write wins.
+         *
+         * @param descriptors The map from keys to descriptors
+         * @throws IOException if the cache cannot be written
+         */
+        void putDescriptors(@NonNull Map<String, String> descriptors) throws IOException;
+
+        /**
+         * Removes all entries from the cache.
+         *
+         * @throws IOException if the cache cannot be written
+         */
+        void clear() throws IOException;
     }
 
     /**
@@ -141,6 +235,43 @@ public interface XposedModuleInterface {
          *                                  created under the old module classloader
          */
         void setSavedInstanceState(@Nullable Object outState);
+
+        /**
+         * Puts a classloader-neutral value to be handed over to the new code without copying. The value
+         * can be retrieved by {@link HotReloadedParam#getRetainedState(String, Class)} with the same key.
+         * Supported values are primitive arrays, {@link String}s, boxed primitives and
+         * {@link ByteBuffer}s. The old code must not modify the value after handing it over.
+         *
+         * @param key   The key of the value
+         * @param value The value to hand over, or {@code null} to remove the key
+         * @throws IllegalArgumentException if the type of value is not supported
+         */
+        @SinceApi(XposedInterface.API_103)
+        void putRetainedState(@NonNull String key, @Nullable Object value);
+
+        /**
+         * Allocates a framework-owned off-heap region that survives the generation switch. Large lookup
+         * tables can be written to the region by the old code and read by the new code through
+         * {@link HotReloadedParam#getRetainedRegion(String)} without rebuilding or copying them.
+         * <p>
+         * A region is owned by one generation at a time: the generation that allocates it, then the
+         * generation that retrieves it. On hot reload, a region is handed over to the new generation
+         * only if it is allocated by this method or put again with
+         * {@link #putRetainedState(String, Object)} during {@link #onHotReloading(HotReloadingParam)}.
+         * Other regions owned by the old generation are released, and so are handed over regions not
+         * retrieved by the new code before {@link #onHotReloaded(HotReloadedParam)} returns. The module
+         * must not access a buffer after its region is released.
+         * </p>
+         *
+         * @param key      The key of the region
+         * @param capacity The capacity of the region in bytes
+         * @return The direct buffer backed by the region, with native byte order
+         * @throws IllegalArgumentException if capacity is negative or the key is already used
+         * @throws OutOfMemoryError         if the region cannot be allocated
+         */
+        @SinceApi(XposedInterface.API_103)
+        @NonNull
+        ByteBuffer allocateRetainedRegion(@NonNull String key, int capacity);
     }
 
     /**
@@ -161,6 +292,33 @@ public interface XposedModuleInterface {
         @Nullable
         Object getSavedInstanceState();
 
+        /**
+         * Gets a value put by {@link HotReloadingParam#putRetainedState(String, Object)}.
+         *
+         * @param key  The key of the value
+         * @param type The expected type of the value
+         * @param <T>  The expected type of the value
+         * @return The value, or {@code null} if no value is handed over with the key
+         * @throws ClassCastException if the value is not of the expected type
+         */
+        @SinceApi(XposedInterface.API_103)
+        @Nullable
+        <T> T getRetainedState(@NonNull String key, @NonNull Class<T> type);
+
+        /**
+         * Gets a region allocated by {@link HotReloadingParam#allocateRetainedRegion(String, int)}
+         * in the previous generation. The returned buffer shares the same memory without copying.
+         * Retrieving the region makes this generation its owner, and the region is released on the next
+         * hot reload unless it is handed over again.
+         *
+         * @param key The key of the region
+         * @return The direct buffer backed by the region, or {@code null} if no region is handed over
+         * with the key
+         */
+        @SinceApi(XposedInterface.API_103)
+        @Nullable
+        ByteBuffer getRetainedRegion(@NonNull String key);
+
         /**
          * Gets a list of hook handles created by the previous generation of this module. The new
          * code can choose to remove or atomically replace these hooks with new ones through
@@ -203,6 +361,26 @@ public interface XposedModuleInterface {
     default void onPackageLoaded(@NonNull PackageLoadedParam param) {
     }
 
+    /**
+     * Declares whether the {@link #onPackageLoaded(PackageLoadedParam)} work of this entry is
+     * independent of other entries of the module. The framework queries this once after
+     * {@link #onModuleLoaded(ModuleLoadedParam)}.
+     * <p>
+     * For modules with multiple entries, the framework may call {@code onPackageLoaded} of independent
+     * entries concurrently on a bounded worker pool, while the other entries are still called in the
+     * order of {@code META-INF/xposed/java_init.list} on the loading thread. All of them finish before
+     * {@link #onPackageReady(PackageReadyParam)} of any entry is called. Independent entries must not
+     * rely on the order of callbacks or on state shared with other entries without synchronization.
+     * </p>
+     *
+     * @return {@code true} if {@code onPackageLoaded} of this entry can run concurrently with other
+     * entries, default to {@code false}
+     */
+    @SinceApi(XposedInterface.API_103)
+    default boolean isIndependentEntry() {
+        return false;
+    }
+
     /**
      * Gets notified when {@link AppComponentFactory} has instantiated the classloader
      * and is ready to create {@link android.app.Application}.
@@ -274,7 +452,11 @@ public interface XposedModuleInterface {
      * method to atomically replace old hooks through
      * {@link XposedInterface.HookHandle#replaceHook(XposedInterface.Hooker)}, remove hooks that
      * should not survive, or perform reload-specific initialization. The default implementation
-     * only unhooks all old hooks.
+     * only unhooks all old hooks. {@link XposedModule} overrides it to unhook them in a single step
+     * through {@link XposedInterface#unhookAll(java.util.Collection)}. To replace many hooks at once,
+     * use {@link XposedInterface#replaceHooks(java.util.Map)}, or describe the full new hook set in a
+     * {@link XposedInterface.HookBatch} and apply only the difference through
+     * {@link XposedInterface.HookBatch#reconcile(java.util.Collection)}.
      * </p>
      * <p>
      * The framework keeps the previous module generation strongly reachable until this callback
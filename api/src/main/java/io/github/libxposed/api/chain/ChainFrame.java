@@ -0,0 +1,386 @@
+package io.github.libxposed.api.chain;
+
+import androidx.annotation.NonNull;
+
+import java.lang.reflect.Executable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.libxposed.api.XposedInterface.Chain;
+import io.github.libxposed.api.XposedInterface.ExceptionMode;
+
+/**
+ * Interceptor chain of one call at one entry. Frames are reused by the owning thread after the
+ * hooker returns, which is allowed because chain objects cannot be shared among threads or reused
+ * after {@link io.github.libxposed.api.XposedInterface.Hooker#intercept(Chain)} ends.
+ */
+final class ChainFrame implements Chain {
+
+    /**
+     * Per-thread stack of frames. Nested calls, including hooked calls made from hookers or from the
+     * original executable, take deeper frames.
+     */
+    static final class Pool {
+        private ChainFrame[] mFrames = new ChainFrame[8];
+        private int mTop;
+
+        Object dispatch(HookChain chain, HookEntry[] entries, int index, Object thisObject, Object[] args, HookChain.Origin origin) throws Throwable {
+            if (mTop == mFrames.length) {
+                mFrames = Arrays.copyOf(mFrames, mTop * 2);
+            }
+            ChainFrame frame = mFrames[mTop];
+            if (frame == null) {
+                frame = mFrames[mTop] = new ChainFrame(this);
+            }
+            mTop++;
+            frame.init(chain, entries, index, thisObject, args, origin);
+            try {
+                return frame.intercept();
+            } finally {
+                frame.clear();
+                mTop--;
+            }
+        }
+    }
+
+    private final Pool mPool;
+    private HookChain mChain;
+    private HookEntry[] mEntries;
+    private int mIndex;
+    private Object mThisObject;
+    private Object[] mInitialArgs;
+    private Object[] mArgs;
+    private HookChain.Origin mOrigin;
+    private Object[] mArgsBuffer;
+
+    private boolean mTimed;
+    private long mProceedNanos;
+    private boolean mProceeded;
+    private Object mProceedResult;
+    private Throwable mProceedThrowable;
+
+    private ChainFrame(Pool pool) {
+        mPool = pool;
+    }
+
+    private void init(HookChain chain, HookEntry[] entries, int index, Object thisObject, Object[] args, HookChain.Origin origin) {
+        mChain = chain;
+        mEntries = entries;
+        mIndex = index;
+        mThisObject = thisObject;
+        mInitialArgs = args;
+        mArgs = args;
+        mOrigin = origin;
+    }
+
+    private void clear() {
+        if (mArgs == mArgsBuffer) {
+            Arrays.fill(mArgsBuffer, null);
+        }
+        mChain = null;
+        mEntries = null;
+        mThisObject = null;
+        mInitialArgs = null;
+        mArgs = null;
+        mOrigin = null;
+        mTimed = false;
+        mProceedNanos = 0L;
+        mProceeded = false;
+        mProceedResult = null;
+        mProceedThrowable = null;
+    }
+
+    private Object intercept() throws Throwable {
+        HookEntry entry = mEntries[mIndex];
+        HookMetricsRecorder metrics = entry.mMetrics;
+        long start = 0L;
+        if (metrics != null) {
+            mTimed = true;
+            start = System.nanoTime();
+        }
+        try {
+            return entry.mHooker.intercept(this);
+        } catch (Throwable t) {
+            if (t == mProceedThrowable || entry.mExceptionMode == ExceptionMode.PASSTHROUGH) {
+                throw t;
+            }
+            if (metrics != null) {
+                metrics.recordSuppressedException();
+            }
+            if (mChain.mExceptionListener != null) {
+                mChain.mExceptionListener.onHookerException(entry, t);
+            }
+            if (!mProceeded) {
+                return proceedInternal(mThisObject, mInitialArgs);
+            }
+            if (mProceedThrowable != null) {
+                throw mProceedThrowable;
+            }
+            return mProceedResult;
+        } finally {
+            if (metrics != null) {
+                metrics.record(System.nanoTime() - start - mProceedNanos);
+            }
+        }
+    }
+
+    private Object proceedInternal(Object thisObject, Object[] args) throws Throwable {
+        mProceeded = true;
+        long start = mTimed ? System.nanoTime() : 0L;
+        try {
+            int next = HookChain.nextAccepting(mEntries, mIndex + 1, thisObject, args);
+            // The last accepting entry calls the origin directly without taking another frame.
+            Object result = next == mEntries.length ? mOrigin.call(thisObject, args)
+                    : mPool.dispatch(mChain, mEntries, next, thisObject, args, mOrigin);
+            mProceedResult = result;
+            mProceedThrowable = null;
+            return result;
+        } catch (Throwable t) {
+            mProceedThrowable = t;
+            throw t;
+        } finally {
+            if (mTimed) {
+                mProceedNanos += System.nanoTime() - start;
+            }
+        }
+    }
+
+    private Object typedArg(int index, Class<?> type) {
+        Objects.checkIndex(index, mArgs.length);
+        if (mChain.mParameterTypes[index] != type) {
+            throw new ClassCastException("Parameter " + index + " is not " + type);
+        }
+        return mArgs[index];
+    }
+
+    /**
+     * Gets the arguments that can be overridden in place. The arguments given by the caller are never
+     * modified, so they are copied once into a buffer reused by this frame.
+     */
+    private Object[] ownedArgs() {
+        if (mArgs == mInitialArgs) {
+            int length = mInitialArgs.length;
+            if (mArgsBuffer == null || mArgsBuffer.length != length) {
+                mArgsBuffer = new Object[length];
+            }
+            System.arraycopy(mInitialArgs, 0, mArgsBuffer, 0, length);
+            mArgs = mArgsBuffer;
+        }
+        return mArgs;
+    }
+
+    private void checkReturnType(Class<?> type) {
+        if (mChain.mReturnType != type) {
+            throw new ClassCastException("Return type is not " + type);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Executable getExecutable() {
+        return mChain.mExecutable;
+    }
+
+    @Override
+    public Object getThisObject() {
+        return mThisObject;
+    }
+
+    @NonNull
+    @Override
+    public List<Object> getArgs() {
+        return Collections.unmodifiableList(Arrays.asList(mArgs.clone()));
+    }
+
+    @Override
+    public Object getArg(int index) {
+        Objects.checkIndex(index, mArgs.length);
+        return mArgs[index];
+    }
+
+    @Override
+    public boolean getBooleanArg(int index) {
+        return (Boolean) typedArg(index, boolean.class);
+    }
+
+    @Override
+    public byte getByteArg(int index) {
+        return (Byte) typedArg(index, byte.class);
+    }
+
+    @Override
+    public char getCharArg(int index) {
+        return (Character) typedArg(index, char.class);
+    }
+
+    @Override
+    public short getShortArg(int index) {
+        return (Short) typedArg(index, short.class);
+    }
+
+    @Override
+    public int getIntArg(int index) {
+        return (Integer) typedArg(index, int.class);
+    }
+
+    @Override
+    public long getLongArg(int index) {
+        return (Long) typedArg(index, long.class);
+    }
+
+    @Override
+    public float getFloatArg(int index) {
+        return (Float) typedArg(index, float.class);
+    }
+
+    @Override
+    public double getDoubleArg(int index) {
+        return (Double) typedArg(index, double.class);
+    }
+
+    @NonNull
+    @Override
+    public Chain setArg(int index, Object value) {
+        Objects.checkIndex(index, mArgs.length);
+        Class<?> type = mChain.mParameterTypes[index];
+        if (value == null ? type.isPrimitive() : !mChain.mBoxedParameterTypes[index].isInstance(value)) {
+            throw new ClassCastException("Cannot assign " + value + " to parameter " + index + " of " + type);
+        }
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setBooleanArg(int index, boolean value) {
+        typedArg(index, boolean.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setByteArg(int index, byte value) {
+        typedArg(index, byte.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setCharArg(int index, char value) {
+        typedArg(index, char.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setShortArg(int index, short value) {
+        typedArg(index, short.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setIntArg(int index, int value) {
+        typedArg(index, int.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setLongArg(int index, long value) {
+        typedArg(index, long.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setFloatArg(int index, float value) {
+        typedArg(index, float.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public Chain setDoubleArg(int index, double value) {
+        typedArg(index, double.class);
+        ownedArgs()[index] = value;
+        return this;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        return proceedInternal(mThisObject, mArgs);
+    }
+
+    @Override
+    public Object proceed(@NonNull Object[] args) throws Throwable {
+        return proceedInternal(mThisObject, args);
+    }
+
+    @Override
+    public Object proceedWith(@NonNull Object thisObject) throws Throwable {
+        return proceedInternal(thisObject, mArgs);
+    }
+
+    @Override
+    public Object proceedWith(@NonNull Object thisObject, @NonNull Object[] args) throws Throwable {
+        return proceedInternal(thisObject, args);
+    }
+
+    @Override
+    public boolean proceedBoolean() throws Throwable {
+        checkReturnType(boolean.class);
+        return (Boolean) proceed();
+    }
+
+    @Override
+    public byte proceedByte() throws Throwable {
+        checkReturnType(byte.class);
+        return (Byte) proceed();
+    }
+
+    @Override
+    public char proceedChar() throws Throwable {
+        checkReturnType(char.class);
+        return (Character) proceed();
+    }
+
+    @Override
+    public short proceedShort() throws Throwable {
+        checkReturnType(short.class);
+        return (Short) proceed();
+    }
+
+    @Override
+    public int proceedInt() throws Throwable {
+        checkReturnType(int.class);
+        return (Integer) proceed();
+    }
+
+    @Override
+    public long proceedLong() throws Throwable {
+        checkReturnType(long.class);
+        return (Long) proceed();
+    }
+
+    @Override
+    public float proceedFloat() throws Throwable {
+        checkReturnType(float.class);
+        return (Float) proceed();
+    }
+
+    @Override
+    public double proceedDouble() throws Throwable {
+        checkReturnType(double.class);
+        return (Double) proceed();
+    }
+}
@@ -0,0 +1,358 @@
+package io.github.libxposed.api.chain;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import io.github.libxposed.api.XposedInterface;
+
+/**
+ * Hooks of one executable and the dispatcher of calls through them.
+ * <p>
+ * Entries are kept in a copy-on-write array ordered by descending priority, with entries of the same
+ * priority in the order they were added. Each mutation, including the bulk ones, publishes a single
+ * new array, and every call dispatches on the array that was published when it started, so the chain
+ * is snapshot based as required by {@link XposedInterface}. Dispatching takes no lock, and the
+ * {@link XposedInterface.Chain} objects are reusable frames owned by the calling thread, so the engine
+ * itself allocates no chain objects per call. Boxing of arguments and results, and copies returned by
+ * {@link XposedInterface.Chain#getArgs()}, still allocate as usual. Entries whose
+ * {@link XposedInterface.HookFilter}s fail for a call are skipped without taking a frame, and a call
+ * that no entry accepts goes to the original executable directly. A call that only one entry accepts
+ * takes a single frame, whose {@link XposedInterface.Chain#proceed()} calls the original executable
+ * without looking up the pool again.
+ * </p>
+ * <p>
+ * Chains created in a {@link HookTable} can also publish changes of several executables in one
+ * generation, so that a call on any of them observes either none or all of the changes.
+ * </p>
+ */
+public final class HookChain {
+
+    /**
+     * Calls the original executable at the end of the chain.
+     */
+    @FunctionalInterface
+    public interface Origin {
+        /**
+         * Calls the original executable.
+         *
+         * @param thisObject The {@code this} pointer, or {@code null} for static methods
+         * @param args       The arguments
+         * @return The result of the call, or {@code null} for void methods and constructors
+         * @throws Throwable if the original executable throws an exception
+         */
+        Object call(Object thisObject, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Listener of exceptions thrown by hookers and swallowed under
+     * {@link XposedInterface.ExceptionMode#PROTECTIVE}.
+     */
+    @FunctionalInterface
+    public interface ExceptionListener {
+        /**
+         * Called on the calling thread when an exception from a hooker is swallowed.
+         *
+         * @param entry     The entry of the hooker
+         * @param throwable The exception thrown by the hooker
+         */
+        void onHookerException(@NonNull HookEntry entry, @NonNull Throwable throwable);
+    }
+
+    private static final HookEntry[] EMPTY = new HookEntry[0];
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class, byte.class, Byte.class, char.class, Character.class,
+            short.class, Short.class, int.class, Integer.class, long.class, Long.class,
+            float.class, Float.class, double.class, Double.class);
+    private static final ThreadLocal<ChainFrame.Pool> POOL = ThreadLocal.withInitial(ChainFrame.Pool::new);
+
+    final Executable mExecutable;
+    final Class<?>[] mParameterTypes;
+    // Parameter types with primitives replaced by their wrappers, for checking overridden arguments.
+    final Class<?>[] mBoxedParameterTypes;
+    final Class<?> mReturnType;
+    final ExceptionListener mExceptionListener;
+    final HookTable mTable;
+    // Guards mutations; the table of the chain if it has one, so its transactions see stable entries.
+    private final Object mLock;
+    volatile HookEntry[] mEntries = EMPTY;
+
+    /**
+     * Creates an empty chain for an executable.
+     *
+     * @param executable The method / constructor
+     */
+    public HookChain(@NonNull Executable executable) {
+        this(executable, null);
+    }
+
+    /**
+     * Creates an empty chain for an executable.
+     *
+     * @param executable        The method / constructor
+     * @param exceptionListener The listener of exceptions swallowed under protective mode, such as a
+     *                          framework logger, or {@code null} to ignore them
+     */
+    public HookChain(@NonNull Executable executable, @Nullable ExceptionListener exceptionListener) {
+        this(executable, exceptionListener, null);
+    }
+
+    /**
+     * Creates an empty chain for an executable in a table, so its changes can be published together
+     * with those of other chains through a {@link HookTable.Transaction}.
+     *
+     * @param executable        The method / constructor
+     * @param exceptionListener The listener of exceptions swallowed under protective mode, such as a
+     *                          framework logger, or {@code null} to ignore them
+     * @param table             The table of the chain, or {@code null} for a standalone chain
+     */
+    public HookChain(@NonNull Executable executable, @Nullable ExceptionListener exceptionListener, @Nullable HookTable table) {
+        mExecutable = Objects.requireNonNull(executable);
+        mParameterTypes = executable.getParameterTypes();
+        mBoxedParameterTypes = new Class<?>[mParameterTypes.length];
+        for (int i = 0; i < mParameterTypes.length; i++) {
+            mBoxedParameterTypes[i] = WRAPPERS.getOrDefault(mParameterTypes[i], mParameterTypes[i]);
+        }
+        mReturnType = executable instanceof Method method ? method.getReturnType() : void.class;
+        mExceptionListener = exceptionListener;
+        mTable = table;
+        mLock = table != null ? table : this;
+    }
+
+    /**
+     * Gets the method / constructor of the chain.
+     */
+    @NonNull
+    public Executable getExecutable() {
+        return mExecutable;
+    }
+
+    /**
+     * Gets the current entries, ordered by descending priority.
+     */
+    @NonNull
+    public List<HookEntry> getEntries() {
+        return List.of(snapshot());
+    }
+
+    /**
+     * Returns whether the chain currently has no entries.
+     */
+    public boolean isEmpty() {
+        return snapshot().length == 0;
+    }
+
+    /**
+     * Adds an entry after all entries with the same or higher priority.
+     *
+     * @param entry The entry to add
+     * @throws IllegalArgumentException if the entry is already in the chain
+     */
+    public void add(@NonNull HookEntry entry) {
+        update(List.of(), Map.of(), List.of(entry));
+    }
+
+    /**
+     * Adds entries with a single publication, each after all entries with the same or higher priority.
+     *
+     * @param entries The entries to add
+     * @throws IllegalArgumentException if any entry is already in the chain or given more than once
+     */
+    public void addAll(@NonNull Collection<HookEntry> entries) {
+        update(List.of(), Map.of(), entries);
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param entry The entry to remove
+     * @return {@code true} if the entry was in the chain
+     */
+    public boolean remove(@NonNull HookEntry entry) {
+        return update(List.of(entry), Map.of(), List.of());
+    }
+
+    /**
+     * Removes entries with a single publication.
+     *
+     * @param entries The entries to remove
+     * @return {@code true} if all entries were in the chain and have been removed; otherwise the chain
+     * is not changed
+     */
+    public boolean removeAll(@NonNull Collection<HookEntry> entries) {
+        return update(entries, Map.of(), List.of());
+    }
+
+    /**
+     * Atomically replaces an entry with another one.
+     *
+     * @param oldEntry The entry to be replaced
+     * @param newEntry The new entry
+     * @return {@code true} if the old entry was in the chain and has been replaced
+     * @throws IllegalArgumentException if the new entry is already in the chain
+     */
+    public boolean replace(@NonNull HookEntry oldEntry, @NonNull HookEntry newEntry) {
+        return update(List.of(), Map.of(oldEntry, newEntry), List.of());
+    }
+
+    /**
+     * Atomically replaces entries with a single publication.
+     *
+     * @param replacements The map from the entries to be replaced to the new entries
+     * @return {@code true} if all old entries were in the chain and have been replaced; otherwise the
+     * chain is not changed
+     * @throws IllegalArgumentException if any new entry is already in the chain or given more than once
+     */
+    public boolean replaceAll(@NonNull Map<HookEntry, HookEntry> replacements) {
+        return update(List.of(), replacements, List.of());
+    }
+
+    /**
+     * Removes, replaces and adds entries with a single publication, so a call observes either none or
+     * all of the changes. A new entry with the same priority as the entry it replaces takes its slot;
+     * otherwise it moves after all entries with the same or higher priority, as added entries do.
+     *
+     * @param removed      The entries to remove
+     * @param replacements The map from the entries to be replaced to the new entries
+     * @param added        The entries to add
+     * @return {@code true} if all entries to remove or replace were in the chain and the changes have
+     * been applied; otherwise the chain is not changed
+     * @throws IllegalArgumentException if an entry would be in the chain more than once after the
+     *                                  changes; the chain is not changed
+     */
+    public boolean update(@NonNull Collection<HookEntry> removed, @NonNull Map<HookEntry, HookEntry> replacements, @NonNull Collection<HookEntry> added) {
+        synchronized (mLock) {
+            HookEntry[] entries = apply(removed, replacements, added);
+            if (entries == null) {
+                return false;
+            }
+            mEntries = entries;
+            return true;
+        }
+    }
+
+    /**
+     * Computes the entries after the changes without publishing them, or returns {@code null} if an
+     * entry to remove or replace is not in the chain. Called with the lock of the chain held.
+     */
+    HookEntry[] apply(Collection<HookEntry> removed, Map<HookEntry, HookEntry> replacements, Collection<HookEntry> added) {
+        // Maps each changed entry to its replacement, or to null if it is removed.
+        Map<HookEntry, HookEntry> changes = new IdentityHashMap<>(replacements);
+        for (HookEntry entry : removed) {
+            changes.put(entry, null);
+        }
+        HookEntry[] old = mEntries;
+        List<HookEntry> entries = new ArrayList<>(old.length + added.size());
+        List<HookEntry> moved = new ArrayList<>();
+        // An entry may only be in the chain once, or removing it would leave a stale copy behind.
+        Set<HookEntry> present = Collections.newSetFromMap(new IdentityHashMap<>());
+        int found = 0;
+        for (HookEntry entry : old) {
+            if (!changes.containsKey(entry)) {
+                entries.add(checkUnique(present, entry));
+                continue;
+            }
+            found++;
+            HookEntry replacement = changes.get(entry);
+            if (replacement == null) {
+                continue;
+            }
+            if (replacement.mPriority == entry.mPriority) {
+                entries.add(checkUnique(present, replacement));
+            } else {
+                moved.add(checkUnique(present, replacement));
+            }
+        }
+        for (HookEntry entry : added) {
+            checkUnique(present, Objects.requireNonNull(entry));
+        }
+        if (found != changes.size()) {
+            return null;
+        }
+        for (HookEntry entry : moved) {
+            insert(entries, entry);
+        }
+        for (HookEntry entry : added) {
+            insert(entries, entry);
+        }
+        return entries.toArray(EMPTY);
+    }
+
+    private static HookEntry checkUnique(Set<HookEntry> present, HookEntry entry) {
+        if (!present.add(entry)) {
+            throw new IllegalArgumentException("Entry is already in the chain: " + entry);
+        }
+        return entry;
+    }
+
+    private static void insert(List<HookEntry> entries, HookEntry entry) {
+        int index = 0;
+        while (index < entries.size() && entries.get(index).mPriority >= entry.mPriority) {
+            index++;
+        }
+        entries.add(index, entry);
+    }
+
+    /**
+     * Calls the executable through the full chain.
+     *
+     * @param thisObject The {@code this} pointer, or {@code null} for static methods
+     * @param args       The arguments. The array is not modified.
+     * @param origin     The call of the original executable
+     * @return The result of the call
+     * @throws Throwable if any hooker or the original executable throws an exception
+     */
+    public Object invoke(Object thisObject, @NonNull Object[] args, @NonNull Origin origin) throws Throwable {
+        return invoke(XposedInterface.PRIORITY_HIGHEST, thisObject, args, origin);
+    }
+
+    /**
+     * Calls the executable through the chain, skipping all entries with priority higher than the
+     * given value, as {@link XposedInterface.Invoker.Type.Chain} does.
+     *
+     * @param maxPriority The maximum priority of entries to include
+     * @param thisObject  The {@code this} pointer, or {@code null} for static methods
+     * @param args        The arguments. The array is not modified.
+     * @param origin      The call of the original executable
+     * @return The result of the call
+     * @throws Throwable if any hooker or the original executable throws an exception
+     */
+    public Object invoke(int maxPriority, Object thisObject, @NonNull Object[] args, @NonNull Origin origin) throws Throwable {
+        HookEntry[] entries = snapshot();
+        int index = 0;
+        while (index < entries.length && entries[index].mPriority > maxPriority) {
+            index++;
+        }
+        index = nextAccepting(entries, index, thisObject, args);
+        if (index == entries.length) {
+            return origin.call(thisObject, args);
+        }
+        return POOL.get().dispatch(this, entries, index, thisObject, args, origin);
+    }
+
+    private HookEntry[] snapshot() {
+        HookTable table = mTable;
+        return table == null ? mEntries : table.read(this);
+    }
+
+    /**
+     * Finds the first entry from the given index whose filters the call passes, or the length of the
+     * entries if there is none. Entries failing their filters are skipped before taking a frame.
+     */
+    static int nextAccepting(HookEntry[] entries, int index, Object thisObject, Object[] args) {
+        while (index < entries.length && !entries[index].accepts(thisObject, args)) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.libxposed.api.chain;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+import io.github.libxposed.api.XposedInterface.ExceptionMode;
+import io.github.libxposed.api.XposedInterface.HookFilter;
+import io.github.libxposed.api.XposedInterface.Hooker;
+
+/**
+ * Immutable entry of a {@link HookChain}. Replacing the hooker of a hook creates a new entry.
+ */
+public final class HookEntry {
+
+    final Hooker mHooker;
+    final int mPriority;
+    final ExceptionMode mExceptionMode;
+    final HookMetricsRecorder mMetrics;
+    final HookFilter[] mFilters;
+
+    /**
+     * Creates an entry without filters.
+     *
+     * @param hooker        The hooker
+     * @param priority      The priority of the hook
+     * @param exceptionMode The exception handling mode. The framework should resolve
+     *                      {@link ExceptionMode#DEFAULT} from the module configuration; if it is
+     *                      passed here, it is treated as {@link ExceptionMode#PROTECTIVE}.
+     * @param metrics       The recorder of invocation metrics, or {@code null} if metrics are disabled
+     */
+    public HookEntry(@NonNull Hooker hooker, int priority, @NonNull ExceptionMode exceptionMode, @Nullable HookMetricsRecorder metrics) {
+        this(hooker, priority, exceptionMode, metrics, List.of());
+    }
+
+    /**
+     * Creates an entry.
+     *
+     * @param hooker        The hooker
+     * @param priority      The priority of the hook
+     * @param exceptionMode The exception handling mode, see
+     *                      {@link #HookEntry(Hooker, int, ExceptionMode, HookMetricsRecorder)}
+     * @param metrics       The recorder of invocation metrics, or {@code null} if metrics are disabled
+     * @param filters       The filters that a call must pass to enter the hooker
+     */
+    public HookEntry(@NonNull Hooker hooker, int priority, @NonNull ExceptionMode exceptionMode, @Nullable HookMetricsRecorder metrics, @NonNull List<HookFilter> filters) {
+        this(hooker, priority, exceptionMode, metrics, filters.isEmpty() ? null : filters.toArray(new HookFilter[0]));
+    }
+
+    private HookEntry(Hooker hooker, int priority, ExceptionMode exceptionMode, HookMetricsRecorder metrics, HookFilter[] filters) {
+        mHooker = Objects.requireNonNull(hooker);
+        mPriority = priority;
+        mExceptionMode = Objects.requireNonNull(exceptionMode) == ExceptionMode.DEFAULT ? ExceptionMode.PROTECTIVE : exceptionMode;
+        mMetrics = metrics;
+        mFilters = filters;
+    }
+
+    /**
+     * Gets the hooker.
+     */
+    @NonNull
+    public Hooker getHooker() {
+        return mHooker;
+    }
+
+    /**
+     * Gets the priority of the hook.
+     */
+    public int getPriority() {
+        return mPriority;
+    }
+
+    /**
+     * Gets the exception handling mode of the hook. It is never {@link ExceptionMode#DEFAULT}.
+     */
+    @NonNull
+    public ExceptionMode getExceptionMode() {
+        return mExceptionMode;
+    }
+
+    /**
+     * Gets the recorder of invocation metrics, or {@code null} if metrics are disabled.
+     */
+    @Nullable
+    public HookMetricsRecorder getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * Gets the filters that a call must pass to enter the hooker.
+     */
+    @NonNull
+    public List<HookFilter> getFilters() {
+        return mFilters == null ? List.of() : List.of(mFilters);
+    }
+
+    /**
+     * Returns whether a call passes all filters of the entry.
+     */
+    boolean accepts(Object thisObject, Object[] args) {
+        if (mFilters != null) {
+            for (HookFilter filter : mFilters) {
+                if (!filter.test(thisObject, args)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates an entry with the same priority, exception handling mode, metrics recorder and
+     * filters, but with another hooker. This is how a hook is replaced.
+     *
+     * @param hooker The new hooker
+     * @return The new entry
+     */
+    @NonNull
+    public HookEntry withHooker(@NonNull Hooker hooker) {
+        return new HookEntry(hooker, mPriority, mExceptionMode, mMetrics, mFilters);
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.libxposed.api.chain;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.libxposed.api.XposedInterface.HookMetrics;
+
+/**
+ * Recorder of hook invocation metrics with contention-free counters. It is fed by {@link HookChain}
+ * for entries created with a recorder.
+ */
+public final class HookMetricsRecorder {
+
+    private final LongAdder mInvocationCount = new LongAdder();
+    private final LongAdder mTotalTimeNanos = new LongAdder();
+    private final LongAdder mSuppressedExceptionCount = new LongAdder();
+    private final AtomicLong mMaxTimeNanos = new AtomicLong();
+
+    void record(long timeNanos) {
+        mInvocationCount.increment();
+        mTotalTimeNanos.add(timeNanos);
+        long max = mMaxTimeNanos.get();
+        while (timeNanos > max && !mMaxTimeNanos.compareAndSet(max, timeNanos)) {
+            max = mMaxTimeNanos.get();
+        }
+    }
+
+    void recordSuppressedException() {
+        mSuppressedExceptionCount.increment();
+    }
+
+    /**
+     * Gets a snapshot of the recorded metrics.
+     */
+    @NonNull
+    public HookMetrics snapshot() {
+        return new HookMetrics(mInvocationCount.sum(), mTotalTimeNanos.sum(), mMaxTimeNanos.get(), mSuppressedExceptionCount.sum());
+    }
+}
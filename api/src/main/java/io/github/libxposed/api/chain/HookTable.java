@@ -0,0 +1,176 @@
+package io.github.libxposed.api.chain;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group of hook chains whose changes can be published together.
+ * <p>
+ * A {@link Transaction} collects changes of any number of chains of the table and publishes them in
+ * one generation: a call that starts while a transaction is being published waits until all of its
+ * chains have been updated, so every call, on any executable, observes either none or all of the
+ * changes. The wait only spans the stores of the new entry arrays, which are prepared beforehand, and
+ * calls never take a lock. Frameworks typically keep one table for all hook chains of a process.
+ * </p>
+ */
+public final class HookTable {
+
+    // Generation counter, odd while a transaction is being published.
+    private volatile int mSequence;
+
+    /**
+     * Creates a new transaction on the table.
+     */
+    @NonNull
+    public Transaction newTransaction() {
+        return new Transaction();
+    }
+
+    /**
+     * Reads the entries of a chain of the table, waiting for a transaction being published.
+     */
+    HookEntry[] read(HookChain chain) {
+        while (true) {
+            int sequence = mSequence;
+            if ((sequence & 1) == 0) {
+                HookEntry[] entries = chain.mEntries;
+                if (mSequence == sequence) {
+                    return entries;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Changes of multiple hook chains of a table, published together by {@link #commit()}.
+     * <p>
+     * Changes are collected relative to each other, so an entry added or replaced earlier in the same
+     * transaction can be removed or replaced again. A transaction is not thread safe and can be
+     * committed once.
+     * </p>
+     */
+    public final class Transaction {
+
+        private final Map<HookChain, Changes> mChanges = new LinkedHashMap<>();
+        private boolean mCommitted;
+
+        private Transaction() {
+        }
+
+        private Changes of(HookChain chain) {
+            if (chain.mTable != HookTable.this) {
+                throw new IllegalArgumentException("Chain does not belong to this table: " + chain.getExecutable());
+            }
+            if (mCommitted) {
+                throw new IllegalStateException("Transaction already committed");
+            }
+            return mChanges.computeIfAbsent(chain, key -> new Changes());
+        }
+
+        /**
+         * Adds an entry to a chain.
+         *
+         * @param chain The chain
+         * @param entry The entry to add
+         */
+        public void add(@NonNull HookChain chain, @NonNull HookEntry entry) {
+            of(chain).mAdded.add(entry);
+        }
+
+        /**
+         * Removes an entry from a chain.
+         *
+         * @param chain The chain
+         * @param entry The entry to remove
+         */
+        public void remove(@NonNull HookChain chain, @NonNull HookEntry entry) {
+            Changes changes = of(chain);
+            if (changes.mAdded.remove(entry)) {
+                return;
+            }
+            for (Map.Entry<HookEntry, HookEntry> replacement : changes.mReplacements.entrySet()) {
+                if (replacement.getValue() == entry) {
+                    changes.mReplacements.remove(replacement.getKey());
+                    changes.mRemoved.add(replacement.getKey());
+                    return;
+                }
+            }
+            changes.mRemoved.add(entry);
+        }
+
+        /**
+         * Replaces an entry of a chain with another one.
+         *
+         * @param chain    The chain
+         * @param oldEntry The entry to be replaced
+         * @param newEntry The new entry
+         */
+        public void replace(@NonNull HookChain chain, @NonNull HookEntry oldEntry, @NonNull HookEntry newEntry) {
+            Changes changes = of(chain);
+            int index = changes.mAdded.indexOf(oldEntry);
+            if (index >= 0) {
+                changes.mAdded.set(index, newEntry);
+                return;
+            }
+            for (Map.Entry<HookEntry, HookEntry> replacement : changes.mReplacements.entrySet()) {
+                if (replacement.getValue() == oldEntry) {
+                    replacement.setValue(newEntry);
+                    return;
+                }
+            }
+            changes.mReplacements.put(oldEntry, newEntry);
+        }
+
+        /**
+         * Publishes all changes in one generation. All chains are validated before any of them is
+         * changed, as {@link HookChain#update(java.util.Collection, Map, java.util.Collection)} does for a
+         * single chain.
+         *
+         * @return {@code true} if all entries to remove or replace were in their chains and the changes
+         * have been applied; otherwise no chain is changed
+         * @throws IllegalArgumentException if an entry would be in a chain more than once; no chain is
+         *                                  changed
+         * @throws IllegalStateException    if the transaction has already been committed
+         */
+        public boolean commit() {
+            if (mCommitted) {
+                throw new IllegalStateException("Transaction already committed");
+            }
+            mCommitted = true;
+            synchronized (HookTable.this) {
+                List<HookChain> chains = new ArrayList<>(mChanges.keySet());
+                HookEntry[][] entries = new HookEntry[chains.size()][];
+                for (int i = 0; i < entries.length; i++) {
+                    Changes changes = mChanges.get(chains.get(i));
+                    entries[i] = chains.get(i).apply(changes.mRemoved, changes.mReplacements, changes.mAdded);
+                    if (entries[i] == null) {
+                        return false;
+                    }
+                }
+                // A single store is atomic by itself; only multiple chains need a new generation.
+                if (entries.length == 1) {
+                    chains.get(0).mEntries = entries[0];
+                    return true;
+                }
+                mSequence++;
+                for (int i = 0; i < entries.length; i++) {
+                    chains.get(i).mEntries = entries[i];
+                }
+                mSequence++;
+                return true;
+            }
+        }
+    }
+
+    private static final class Changes {
+        final List<HookEntry> mRemoved = new ArrayList<>();
+        final Map<HookEntry, HookEntry> mReplacements = new IdentityHashMap<>();
+        final List<HookEntry> mAdded = new ArrayList<>();
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Reference interceptor-chain engine for framework implementations.
+ *
+ * <p>Frameworks keep one {@link io.github.libxposed.api.chain.HookChain HookChain} per hooked
+ * executable and call
+ * {@link io.github.libxposed.api.chain.HookChain#invoke(java.lang.Object, java.lang.Object[], io.github.libxposed.api.chain.HookChain.Origin)
+ * invoke()} from their hook trampolines, passing the call of the original executable as an
+ * {@link io.github.libxposed.api.chain.HookChain.Origin Origin}. The engine implements the dispatch
+ * rules of {@link io.github.libxposed.api.XposedInterface.Chain Chain} and
+ * {@link io.github.libxposed.api.XposedInterface.Hooker Hooker}, including priorities, exception
+ * handling modes and hook metrics, and depends on no Android classes, so it can be tested on a plain
+ * JVM.</p>
+ *
+ * <p>Chains sharing a {@link io.github.libxposed.api.chain.HookTable HookTable} publish changes that
+ * span several executables, such as hook batches, in a single generation.</p>
+ *
+ * <p>Modules <b>should not</b> use this package. It does not install hooks by itself.</p>
+ */
+package io.github.libxposed.api.chain;
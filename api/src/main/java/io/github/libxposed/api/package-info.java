@@ -95,7 +95,10 @@
  * getInvoker(Method)} or
  * {@link io.github.libxposed.api.XposedInterface#getInvoker(java.lang.reflect.Constructor)
  * getInvoker(Constructor)}. The invoker type controls what part of the hook chain is executed
- * (see {@link io.github.libxposed.api.XposedInterface.Invoker.Type Invoker.Type}).</p>
+ * (see {@link io.github.libxposed.api.XposedInterface.Invoker.Type Invoker.Type}). For calls in
+ * tight loops, {@link io.github.libxposed.api.XposedInterface.Invoker#getMethodHandle()
+ * getMethodHandle()} returns an exact-typed {@link java.lang.invoke.MethodHandle} that avoids the
+ * varargs array and boxing.</p>
  *
  * <h2>Module Lifecycle Callbacks</h2>
  *
@@ -0,0 +1,59 @@
+package io.github.libxposed.api;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import io.github.libxposed.api.XposedInterface.HookFilter;
+
+public class HookFilterTest {
+
+    @SuppressWarnings("unused")
+    private long instance(long value, CharSequence text) {
+        return value;
+    }
+
+    @SuppressWarnings("unused")
+    private static int statik(int value) {
+        return value;
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return HookFilterTest.class.getDeclaredMethod(name, parameterTypes);
+    }
+
+    @Test
+    public void primitiveArgumentRequiresWrapperType() throws NoSuchMethodException {
+        Method method = method("instance", long.class, CharSequence.class);
+        assertTrue(HookFilter.argumentEquals(0, 5L).isApplicableTo(method));
+        assertFalse(HookFilter.argumentEquals(0, 5).isApplicableTo(method));
+        assertFalse(HookFilter.argumentEquals(0, null).isApplicableTo(method));
+        assertFalse(HookFilter.argumentSame(0, 5L).isApplicableTo(method));
+    }
+
+    @Test
+    public void referenceArgumentRequiresAssignableValue() throws NoSuchMethodException {
+        Method method = method("instance", long.class, CharSequence.class);
+        assertTrue(HookFilter.argumentEquals(1, "text").isApplicableTo(method));
+        assertTrue(HookFilter.argumentSame(1, null).isApplicableTo(method));
+        assertFalse(HookFilter.argumentEquals(1, 1).isApplicableTo(method));
+        assertFalse(HookFilter.argumentEquals(2, "text").isApplicableTo(method));
+    }
+
+    @Test
+    public void receiverFilterRequiresInstanceMethod() throws NoSuchMethodException {
+        assertTrue(HookFilter.receiverType(Object.class).isApplicableTo(method("instance", long.class, CharSequence.class)));
+        assertFalse(HookFilter.receiverType(Object.class).isApplicableTo(method("statik", int.class)));
+        assertTrue(HookFilter.thread(Thread.currentThread()).isApplicableTo(method("statik", int.class)));
+    }
+
+    @Test
+    public void argumentFiltersCompareBoxedValues() {
+        assertTrue(HookFilter.argumentEquals(0, 5L).test(null, new Object[]{5L}));
+        assertFalse(HookFilter.argumentEquals(0, 5).test(null, new Object[]{5L}));
+        assertFalse(HookFilter.argumentEquals(1, 5L).test(null, new Object[]{5L}));
+    }
+}
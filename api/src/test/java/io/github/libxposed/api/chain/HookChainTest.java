@@ -0,0 +1,310 @@
+package io.github.libxposed.api.chain;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.libxposed.api.XposedInterface.ExceptionMode;
+import io.github.libxposed.api.XposedInterface.HookFilter;
+import io.github.libxposed.api.XposedInterface.HookMetrics;
+import io.github.libxposed.api.XposedInterface.Hooker;
+
+public class HookChainTest {
+
+    @SuppressWarnings("unused")
+    private static int add(int a, int b) {
+        return a + b;
+    }
+
+    private static final HookChain.Origin ADD = (thisObject, args) -> (Integer) args[0] + (Integer) args[1];
+
+    private final List<Throwable> mSwallowed = new ArrayList<>();
+    private HookChain mChain;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        Method method = HookChainTest.class.getDeclaredMethod("add", int.class, int.class);
+        mChain = new HookChain(method, (entry, throwable) -> mSwallowed.add(throwable));
+    }
+
+    private static HookEntry entry(int priority, Hooker hooker) {
+        return new HookEntry(hooker, priority, ExceptionMode.PROTECTIVE, null);
+    }
+
+    private Object call(int a, int b) throws Throwable {
+        return mChain.invoke(null, new Object[]{a, b}, ADD);
+    }
+
+    @Test
+    public void emptyChainCallsOrigin() throws Throwable {
+        assertEquals(3, call(1, 2));
+    }
+
+    @Test
+    public void entriesRunInDescendingPriority() throws Throwable {
+        List<Integer> order = new ArrayList<>();
+        mChain.add(entry(0, chain -> {
+            order.add(0);
+            return chain.proceed();
+        }));
+        mChain.add(entry(10, chain -> {
+            order.add(10);
+            return chain.proceed();
+        }));
+        mChain.add(entry(10, chain -> {
+            order.add(11);
+            return chain.proceed();
+        }));
+        assertEquals(3, call(1, 2));
+        assertEquals(List.of(10, 11, 0), order);
+    }
+
+    @Test
+    public void protectiveExceptionBeforeProceedContinuesWithInitialArgs() throws Throwable {
+        mChain.add(entry(10, chain -> {
+            chain.setIntArg(0, 100);
+            throw new IllegalStateException("before");
+        }));
+        assertEquals(3, call(1, 2));
+        assertEquals(1, mSwallowed.size());
+        assertEquals("before", mSwallowed.get(0).getMessage());
+    }
+
+    @Test
+    public void protectiveExceptionAfterProceedReturnsProceededResult() throws Throwable {
+        mChain.add(entry(10, chain -> {
+            chain.proceed();
+            throw new IllegalStateException("after");
+        }));
+        assertEquals(3, call(1, 2));
+        assertEquals(1, mSwallowed.size());
+    }
+
+    @Test
+    public void protectiveExceptionAfterFailedProceedRethrowsProceededException() {
+        HookChain.Origin failing = (thisObject, args) -> {
+            throw new ArithmeticException("origin");
+        };
+        mChain.add(entry(10, chain -> {
+            try {
+                chain.proceed();
+            } catch (ArithmeticException ignored) {
+            }
+            throw new IllegalStateException("after");
+        }));
+        ArithmeticException e = assertThrows(ArithmeticException.class,
+                () -> mChain.invoke(null, new Object[]{1, 2}, failing));
+        assertEquals("origin", e.getMessage());
+    }
+
+    @Test
+    public void exceptionFromProceedIsNotSwallowed() {
+        HookChain.Origin failing = (thisObject, args) -> {
+            throw new ArithmeticException("origin");
+        };
+        mChain.add(entry(10, chain -> chain.proceed()));
+        assertThrows(ArithmeticException.class, () -> mChain.invoke(null, new Object[]{1, 2}, failing));
+        assertTrue(mSwallowed.isEmpty());
+    }
+
+    @Test
+    public void passthroughExceptionPropagates() {
+        mChain.add(new HookEntry(chain -> {
+            throw new IllegalStateException("passthrough");
+        }, 10, ExceptionMode.PASSTHROUGH, null));
+        assertThrows(IllegalStateException.class, () -> call(1, 2));
+        assertTrue(mSwallowed.isEmpty());
+    }
+
+    @Test
+    public void setArgIsVisibleToLaterEntriesAndOrigin() throws Throwable {
+        Object[] args = {1, 2};
+        AtomicInteger seen = new AtomicInteger();
+        mChain.add(entry(10, chain -> chain.setIntArg(0, 40).proceed()));
+        mChain.add(entry(0, chain -> {
+            seen.set(chain.getIntArg(0));
+            return chain.proceed();
+        }));
+        assertEquals(42, mChain.invoke(null, args, ADD));
+        assertEquals(40, seen.get());
+        assertArrayEquals(new Object[]{1, 2}, args);
+    }
+
+    @Test
+    public void setArgIsIsolatedBetweenNestedFrames() throws Throwable {
+        AtomicInteger nested = new AtomicInteger();
+        mChain.add(entry(10, chain -> {
+            chain.setIntArg(0, 10);
+            if (chain.getIntArg(1) == 2) {
+                nested.set((Integer) mChain.invoke(null, new Object[]{5, 6}, ADD));
+            }
+            return chain.proceed();
+        }));
+        assertEquals(12, call(1, 2));
+        assertEquals(16, nested.get());
+    }
+
+    @Test
+    public void setArgChecksParameterType() throws Throwable {
+        mChain.add(entry(10, chain -> {
+            assertThrows(ClassCastException.class, () -> chain.setArg(0, 1L));
+            assertThrows(ClassCastException.class, () -> chain.setArg(0, null));
+            assertThrows(ClassCastException.class, () -> chain.setLongArg(0, 1L));
+            return chain.setArg(0, 7).proceed();
+        }));
+        assertEquals(9, call(1, 2));
+        assertTrue(mSwallowed.isEmpty());
+    }
+
+    @Test
+    public void maxPrioritySkipsHigherEntries() throws Throwable {
+        mChain.add(entry(100, chain -> 100));
+        mChain.add(entry(50, chain -> 50));
+        mChain.add(entry(0, chain -> chain.proceed()));
+        assertEquals(100, call(1, 2));
+        assertEquals(50, mChain.invoke(99, null, new Object[]{1, 2}, ADD));
+        assertEquals(3, mChain.invoke(49, null, new Object[]{1, 2}, ADD));
+    }
+
+    @Test
+    public void failingFiltersSkipEntries() throws Throwable {
+        AtomicInteger entered = new AtomicInteger();
+        mChain.add(new HookEntry(chain -> {
+            entered.incrementAndGet();
+            return -1;
+        }, 0, ExceptionMode.PROTECTIVE, null, List.of(HookFilter.argumentEquals(0, 5))));
+        assertEquals(3, call(1, 2));
+        assertEquals(0, entered.get());
+        assertEquals(-1, call(5, 2));
+        assertEquals(1, entered.get());
+
+        // Filters see the arguments as overridden by earlier entries.
+        mChain.add(entry(10, chain -> chain.setIntArg(0, 5).proceed()));
+        assertEquals(-1, call(1, 2));
+        assertEquals(2, entered.get());
+    }
+
+    @Test
+    public void metricsExcludeProceedTime() throws Throwable {
+        HookMetricsRecorder recorder = new HookMetricsRecorder();
+        mChain.add(new HookEntry(chain -> chain.proceed(), 0, ExceptionMode.PROTECTIVE, recorder));
+        HookChain.Origin slow = (thisObject, args) -> {
+            Thread.sleep(50);
+            return 0;
+        };
+        mChain.invoke(null, new Object[]{1, 2}, slow);
+        mChain.invoke(null, new Object[]{1, 2}, slow);
+        HookMetrics metrics = recorder.snapshot();
+        assertEquals(2, metrics.invocationCount());
+        assertTrue(metrics.totalTimeNanos() < TimeUnit.MILLISECONDS.toNanos(50));
+        assertTrue(metrics.maxTimeNanos() <= metrics.totalTimeNanos());
+        assertEquals(0, metrics.suppressedExceptionCount());
+    }
+
+    @Test
+    public void metricsCountSuppressedExceptions() throws Throwable {
+        HookMetricsRecorder recorder = new HookMetricsRecorder();
+        mChain.add(new HookEntry(chain -> {
+            throw new IllegalStateException();
+        }, 0, ExceptionMode.PROTECTIVE, recorder));
+        call(1, 2);
+        assertEquals(1, recorder.snapshot().suppressedExceptionCount());
+    }
+
+    @Test
+    public void replaceKeepsSlotForSamePriority() throws Throwable {
+        List<Integer> order = new ArrayList<>();
+        HookEntry first = entry(0, chain -> {
+            order.add(1);
+            return chain.proceed();
+        });
+        mChain.add(first);
+        mChain.add(entry(0, chain -> {
+            order.add(2);
+            return chain.proceed();
+        }));
+        assertTrue(mChain.replace(first, entry(0, chain -> {
+            order.add(3);
+            return chain.proceed();
+        })));
+        call(1, 2);
+        assertEquals(List.of(3, 2), order);
+    }
+
+    @Test
+    public void bulkUpdateIsAllOrNothing() throws Throwable {
+        HookEntry installed = entry(0, chain -> 1);
+        HookEntry missing = entry(0, chain -> 2);
+        mChain.add(installed);
+        assertFalse(mChain.removeAll(List.of(installed, missing)));
+        assertEquals(List.of(installed), mChain.getEntries());
+        assertFalse(mChain.replaceAll(Map.of(missing, entry(0, chain -> 3))));
+        assertEquals(1, call(1, 2));
+
+        HookEntry added = entry(10, chain -> 4);
+        assertTrue(mChain.update(List.of(installed), Map.of(), List.of(added)));
+        assertEquals(List.of(added), mChain.getEntries());
+        assertEquals(4, call(1, 2));
+    }
+
+    @Test
+    public void duplicateEntriesAreRejected() throws Throwable {
+        HookEntry installed = entry(0, chain -> 1);
+        HookEntry other = entry(0, chain -> 2);
+        mChain.add(installed);
+        assertThrows(IllegalArgumentException.class, () -> mChain.add(installed));
+        assertThrows(IllegalArgumentException.class, () -> mChain.addAll(List.of(other, other)));
+        assertFalse(mChain.replace(other, installed));
+        mChain.add(other);
+        assertThrows(IllegalArgumentException.class, () -> mChain.replace(installed, other));
+        assertEquals(List.of(installed, other), mChain.getEntries());
+
+        assertTrue(mChain.remove(installed));
+        assertFalse(mChain.remove(installed));
+        assertEquals(2, call(1, 2));
+        assertTrue(mChain.update(List.of(other), Map.of(), List.of(other)));
+        assertEquals(List.of(other), mChain.getEntries());
+    }
+
+    @Test
+    public void replaceWithOtherPriorityIsAtomic() throws Throwable {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger unhooked = new AtomicInteger();
+        HookEntry[] current = {entry(10, chain -> -1)};
+        mChain.add(current[0]);
+        Thread caller = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    if (!Integer.valueOf(-1).equals(call(1, 2))) {
+                        unhooked.incrementAndGet();
+                    }
+                }
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        caller.start();
+        for (int i = 0; i < 20_000; i++) {
+            HookEntry next = entry(i % 2 == 0 ? -10 : 10, chain -> -1);
+            assertTrue(mChain.replace(current[0], next));
+            current[0] = next;
+        }
+        running.set(false);
+        caller.join();
+        assertEquals(0, unhooked.get());
+        assertEquals(List.of(current[0]), mChain.getEntries());
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.libxposed.api.chain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.libxposed.api.XposedInterface.ExceptionMode;
+import io.github.libxposed.api.XposedInterface.Hooker;
+
+public class HookTableTest {
+
+    @SuppressWarnings("unused")
+    private static int first() {
+        return 0;
+    }
+
+    @SuppressWarnings("unused")
+    private static int second() {
+        return 0;
+    }
+
+    private static final HookChain.Origin ORIGIN = (thisObject, args) -> 0;
+
+    private final HookTable mTable = new HookTable();
+    private HookChain mFirst;
+    private HookChain mSecond;
+
+    @Before
+    public void setUp() throws NoSuchMethodException {
+        mFirst = new HookChain(HookTableTest.class.getDeclaredMethod("first"), null, mTable);
+        mSecond = new HookChain(HookTableTest.class.getDeclaredMethod("second"), null, mTable);
+    }
+
+    private static HookEntry entry(Hooker hooker) {
+        return new HookEntry(hooker, 0, ExceptionMode.PROTECTIVE, null);
+    }
+
+    private static int call(HookChain chain) throws Throwable {
+        return (Integer) chain.invoke(null, new Object[0], ORIGIN);
+    }
+
+    @Test
+    public void commitIsAllOrNothing() throws Throwable {
+        HookEntry installed = entry(chain -> 1);
+        mFirst.add(installed);
+        HookTable.Transaction transaction = mTable.newTransaction();
+        transaction.add(mFirst, entry(chain -> 2));
+        transaction.remove(mSecond, installed);
+        assertFalse(transaction.commit());
+        assertEquals(List.of(installed), mFirst.getEntries());
+        assertTrue(mSecond.isEmpty());
+        assertThrows(IllegalStateException.class, transaction::commit);
+
+        HookEntry replacement = entry(chain -> 3);
+        HookEntry added = entry(chain -> 4);
+        transaction = mTable.newTransaction();
+        transaction.replace(mFirst, installed, replacement);
+        transaction.add(mSecond, added);
+        assertTrue(transaction.commit());
+        assertEquals(3, call(mFirst));
+        assertEquals(4, call(mSecond));
+    }
+
+    @Test
+    public void chainOfOtherTableIsRejected() throws NoSuchMethodException {
+        HookChain standalone = new HookChain(HookTableTest.class.getDeclaredMethod("first"));
+        HookTable.Transaction transaction = mTable.newTransaction();
+        assertThrows(IllegalArgumentException.class, () -> transaction.add(standalone, entry(chain -> 1)));
+    }
+
+    @Test
+    public void callsObserveWholeTransactions() throws Throwable {
+        // Many chains widen the window between the first and the last store of a publication.
+        HookChain[] chains = new HookChain[256];
+        HookEntry[] current = new HookEntry[chains.length];
+        for (int i = 0; i < chains.length; i++) {
+            chains[i] = new HookChain(mFirst.getExecutable(), null, mTable);
+            current[i] = entry(chain -> 0);
+            chains[i].add(current[i]);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger torn = new AtomicInteger();
+        Thread caller = new Thread(() -> {
+            try {
+                while (running.get()) {
+                    // The first chain is published first, so a later call on the last chain must
+                    // never see an older generation.
+                    int first = call(chains[0]);
+                    if (call(chains[chains.length - 1]) < first) {
+                        torn.incrementAndGet();
+                    }
+                }
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        caller.start();
+        for (int generation = 1; generation <= 5_000; generation++) {
+            int value = generation;
+            HookTable.Transaction transaction = mTable.newTransaction();
+            for (int i = 0; i < chains.length; i++) {
+                HookEntry next = entry(chain -> value);
+                transaction.replace(chains[i], current[i], next);
+                current[i] = next;
+            }
+            assertTrue(transaction.commit());
+        }
+        running.set(false);
+        caller.join();
+        assertEquals(0, torn.get());
+    }
+}
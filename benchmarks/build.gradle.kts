@@ -0,0 +1,29 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
+
+val dependencySnapshot = providers.gradleProperty("dependencySnapshot").orNull == "true"
+fun String.real(snapshot: Boolean) = if (snapshot) "$this-SNAPSHOT" else this
+val libxposedAnnotation = "io.github.libxposed:annotation:" + libs.versions.libxposed.annotation.get()
+
+// The benchmarks run on a plain JVM against the compiled API classes. The few Android classes in
+// the API signatures come from minimal stubs instead of a full Android runtime.
+val stubs by sourceSets.creating
+
+dependencies {
+    implementation(project(path = ":api", configuration = "jvmElements"))
+    implementation(stubs.output)
+    compileOnly(libs.androidx.annotation)
+    compileOnly(libxposedAnnotation.real(dependencySnapshot))
+    jmhCompileOnly(libs.androidx.annotation)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+}
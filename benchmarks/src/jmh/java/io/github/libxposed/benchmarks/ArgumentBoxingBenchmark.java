@@ -0,0 +1,82 @@
+package io.github.libxposed.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.benchmarks.reference.ReferenceXposedInterface;
+
+/**
+ * Cost of reading and rewriting arguments in a hooker through the boxed and the typed accessors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArgumentBoxingBenchmark {
+
+    private final BenchmarkTarget mTarget = new BenchmarkTarget();
+    private MethodHandle mBoxedRead;
+    private MethodHandle mTypedRead;
+    private MethodHandle mBoxedRewrite;
+    private MethodHandle mTypedRewrite;
+
+    private static MethodHandle hooked(Method method, XposedInterface.Hooker hooker) {
+        ReferenceXposedInterface xposed = new ReferenceXposedInterface();
+        xposed.hook(method).intercept(hooker);
+        return xposed.getInvoker(method).getMethodHandle();
+    }
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Method method = BenchmarkTarget.class.getDeclaredMethod("add", int.class, int.class);
+        mBoxedRead = hooked(method, chain -> {
+            int a = (Integer) chain.getArg(0);
+            return (Integer) chain.proceed() + a;
+        });
+        mTypedRead = hooked(method, chain -> {
+            int a = chain.getIntArg(0);
+            return chain.proceedInt() + a;
+        });
+        mBoxedRewrite = hooked(method, chain -> {
+            Object[] args = chain.getArgs().toArray();
+            args[1] = (Integer) args[1] + 1;
+            return chain.proceed(args);
+        });
+        mTypedRewrite = hooked(method, chain -> chain.setIntArg(1, chain.getIntArg(1) + 1).proceed());
+    }
+
+    @Benchmark
+    public int boxedRead() throws Throwable {
+        return (int) mBoxedRead.invokeExact(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public int typedRead() throws Throwable {
+        return (int) mTypedRead.invokeExact(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public int boxedRewrite() throws Throwable {
+        return (int) mBoxedRewrite.invokeExact(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public int typedRewrite() throws Throwable {
+        return (int) mTypedRewrite.invokeExact(mTarget, 1, 2);
+    }
+}
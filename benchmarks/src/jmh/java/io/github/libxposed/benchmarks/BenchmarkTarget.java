@@ -0,0 +1,17 @@
+package io.github.libxposed.benchmarks;
+
+/**
+ * Target of the benchmarked hooks and invocations.
+ */
+public class BenchmarkTarget {
+
+    private int mBase = 1;
+
+    public int add(int a, int b) {
+        return mBase + a + b;
+    }
+
+    public void setBase(int base) {
+        mBase = base;
+    }
+}
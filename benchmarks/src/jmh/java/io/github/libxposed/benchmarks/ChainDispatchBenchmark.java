@@ -0,0 +1,60 @@
+package io.github.libxposed.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.benchmarks.reference.ReferenceXposedInterface;
+
+/**
+ * Cost of dispatching a call through interceptor chains of different depths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainDispatchBenchmark {
+
+    @Param({"0", "1", "4", "16"})
+    public int depth;
+
+    private final BenchmarkTarget mTarget = new BenchmarkTarget();
+    private XposedInterface.Invoker<?, Method> mInvoker;
+    private MethodHandle mHandle;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        ReferenceXposedInterface xposed = new ReferenceXposedInterface();
+        Method method = BenchmarkTarget.class.getDeclaredMethod("add", int.class, int.class);
+        for (int i = 0; i < depth; i++) {
+            xposed.hook(method).intercept(XposedInterface.Chain::proceed);
+        }
+        mInvoker = xposed.getInvoker(method);
+        mHandle = mInvoker.getMethodHandle();
+    }
+
+    @Benchmark
+    public Object invoke() throws Exception {
+        return mInvoker.invoke(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public int invokeExact() throws Throwable {
+        return (int) mHandle.invokeExact(mTarget, 1, 2);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.libxposed.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.benchmarks.reference.ReferenceXposedInterface;
+
+/**
+ * Cost of a hook that ignores the call, checking the condition in the hooker compared to declaring it
+ * as a {@link XposedInterface.HookFilter}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HookFilterBenchmark {
+
+    private static final Integer MATCH = 42;
+
+    private final BenchmarkTarget mTarget = new BenchmarkTarget();
+    private MethodHandle mHookerCheck;
+    private MethodHandle mFiltered;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Method method = BenchmarkTarget.class.getDeclaredMethod("add", int.class, int.class);
+
+        ReferenceXposedInterface checked = new ReferenceXposedInterface();
+        checked.hook(method).intercept(chain -> {
+            if (!MATCH.equals(chain.getArg(0))) {
+                return chain.proceed();
+            }
+            return 0;
+        });
+        mHookerCheck = checked.getInvoker(method).getMethodHandle();
+
+        ReferenceXposedInterface filtered = new ReferenceXposedInterface();
+        filtered.hook(method)
+                .addFilter(XposedInterface.HookFilter.argumentEquals(0, MATCH))
+                .intercept(chain -> 0);
+        mFiltered = filtered.getInvoker(method).getMethodHandle();
+    }
+
+    @Benchmark
+    public int hookerCheck() throws Throwable {
+        return (int) mHookerCheck.invokeExact(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public int filtered() throws Throwable {
+        return (int) mFiltered.invokeExact(mTarget, 1, 2);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.libxposed.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.benchmarks.reference.ReferenceXposedInterface;
+
+/**
+ * Cost of calling the original method through an origin invoker compared to a direct call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokerBenchmark {
+
+    private final BenchmarkTarget mTarget = new BenchmarkTarget();
+    private Method mMethod;
+    private XposedInterface.Invoker<?, Method> mInvoker;
+    private MethodHandle mHandle;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        ReferenceXposedInterface xposed = new ReferenceXposedInterface();
+        mMethod = BenchmarkTarget.class.getDeclaredMethod("add", int.class, int.class);
+        xposed.hook(mMethod).intercept(XposedInterface.Chain::proceed);
+        mInvoker = xposed.getInvoker(mMethod).setType(XposedInterface.Invoker.Type.ORIGIN);
+        mHandle = mInvoker.getMethodHandle();
+    }
+
+    @Benchmark
+    public int direct() {
+        return mTarget.add(1, 2);
+    }
+
+    @Benchmark
+    public Object reflect() throws Exception {
+        return mMethod.invoke(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public Object invoker() throws Exception {
+        return mInvoker.invoke(mTarget, 1, 2);
+    }
+
+    @Benchmark
+    public int invokerHandle() throws Throwable {
+        return (int) mHandle.invokeExact(mTarget, 1, 2);
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.libxposed.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.api.XposedModule;
+import io.github.libxposed.benchmarks.reference.ReferenceXposedInterface;
+
+/**
+ * Cost of calling the framework through {@link io.github.libxposed.api.XposedInterfaceWrapper}
+ * compared to calling the framework interface directly, and through the interface obtained from
+ * {@link io.github.libxposed.api.XposedInterfaceWrapper#getFramework()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WrapperDelegationBenchmark {
+
+    private static final class Module extends XposedModule {
+    }
+
+    private XposedInterface mBase;
+    private XposedInterface mModule;
+    private XposedInterface mFramework;
+
+    @Setup
+    public void setup() {
+        mBase = new ReferenceXposedInterface();
+        Module module = new Module();
+        module.attachFramework(mBase, () -> {
+        });
+        mModule = module;
+        mFramework = module.getFramework();
+    }
+
+    @Benchmark
+    public boolean direct() {
+        return mBase.isLoggable(3, "bench");
+    }
+
+    @Benchmark
+    public boolean wrapper() {
+        return mModule.isLoggable(3, "bench");
+    }
+
+    @Benchmark
+    public boolean framework() {
+        return mFramework.isLoggable(3, "bench");
+    }
+}
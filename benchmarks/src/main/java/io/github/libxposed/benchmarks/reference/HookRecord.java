@@ -0,0 +1,69 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Executable;
+
+import io.github.libxposed.api.XposedInterface.HookHandle;
+import io.github.libxposed.api.XposedInterface.HookMetrics;
+import io.github.libxposed.api.XposedInterface.Hooker;
+import io.github.libxposed.api.chain.HookEntry;
+import io.github.libxposed.api.chain.HookMetricsRecorder;
+
+/**
+ * An installed (or staged) hook, given to modules as its handle.
+ */
+final class HookRecord implements HookHandle {
+
+    private final ReferenceXposedInterface mOwner;
+    final Executable mExecutable;
+    final HookEntry mEntry;
+    final String mId;
+    volatile boolean mValid;
+
+    HookRecord(ReferenceXposedInterface owner, Executable executable, HookEntry entry, String id) {
+        mOwner = owner;
+        mExecutable = executable;
+        mEntry = entry;
+        mId = id;
+    }
+
+    HookRecord withHooker(Hooker hooker) {
+        return new HookRecord(mOwner, mExecutable, mEntry.withHooker(hooker), mId);
+    }
+
+    boolean isOwnedBy(ReferenceXposedInterface owner) {
+        return mOwner == owner;
+    }
+
+    @NonNull
+    @Override
+    public Executable getExecutable() {
+        return mExecutable;
+    }
+
+    @Override
+    public void unhook() {
+        mOwner.unhook(this);
+    }
+
+    @Nullable
+    @Override
+    public String getId() {
+        return mId;
+    }
+
+    @NonNull
+    @Override
+    public HookHandle replaceHook(@NonNull Hooker hooker) {
+        return mOwner.replaceHook(this, hooker);
+    }
+
+    @Nullable
+    @Override
+    public HookMetrics getMetrics() {
+        HookMetricsRecorder metrics = mEntry.getMetrics();
+        return metrics == null ? null : metrics.snapshot();
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves executables from smali descriptors such as {@code Lcom/example/Foo;->baz(IJ)V}.
+ * <p>
+ * Each class is scanned once into a table keyed by member name and JVM descriptor, so repeated
+ * resolutions are a class lookup and a map lookup. The table is attached to the class through a
+ * {@link ClassValue}, so nothing here keeps a class or its classloader alive. A {@code null}
+ * classloader denotes the bootstrap classloader.
+ * </p>
+ */
+final class MemberResolver {
+
+    private static final String CONSTRUCTOR = "<init>";
+
+    private final ClassValue<Map<String, Executable>> mMembers = new ClassValue<>() {
+        @Override
+        protected Map<String, Executable> computeValue(Class<?> type) {
+            Map<String, Executable> members = new HashMap<>();
+            for (Method method : type.getDeclaredMethods()) {
+                members.put(method.getName() + descriptorOf(method.getParameterTypes(), method.getReturnType()), method);
+            }
+            for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+                members.put(CONSTRUCTOR + descriptorOf(constructor.getParameterTypes(), void.class), constructor);
+            }
+            return members;
+        }
+    };
+
+    Method resolveMethod(ClassLoader classLoader, String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        if (CONSTRUCTOR.equals(memberName(descriptor))) {
+            throw new IllegalArgumentException("Descriptor denotes a constructor: " + descriptor);
+        }
+        return (Method) resolve(classLoader, descriptor);
+    }
+
+    Constructor<?> resolveConstructor(ClassLoader classLoader, String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        if (!CONSTRUCTOR.equals(memberName(descriptor))) {
+            throw new IllegalArgumentException("Descriptor does not denote a constructor: " + descriptor);
+        }
+        return (Constructor<?>) resolve(classLoader, descriptor);
+    }
+
+    Map<String, Executable> resolveAll(ClassLoader classLoader, Collection<String> descriptors) {
+        for (String descriptor : descriptors) {
+            memberName(descriptor);
+        }
+        Map<String, Executable> result = new LinkedHashMap<>();
+        for (String descriptor : descriptors) {
+            try {
+                result.put(descriptor, resolve(classLoader, descriptor));
+            } catch (ReflectiveOperationException ignored) {
+            }
+        }
+        return result;
+    }
+
+    private Executable resolve(ClassLoader classLoader, String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        int arrow = descriptor.indexOf("->");
+        String className = descriptor.substring(1, arrow - 1).replace('/', '.');
+        Class<?> type = Class.forName(className, false, classLoader);
+        Executable executable = mMembers.get(type).get(descriptor.substring(arrow + 2));
+        if (executable == null) {
+            throw new NoSuchMethodException(descriptor);
+        }
+        return executable;
+    }
+
+    /**
+     * Validates the descriptor and returns the name of the member it denotes.
+     */
+    private static String memberName(String descriptor) {
+        int arrow = descriptor.indexOf("->");
+        int paren = descriptor.indexOf('(', arrow + 2);
+        if (arrow < 3 || descriptor.charAt(0) != 'L' || descriptor.charAt(arrow - 1) != ';' || paren <= arrow + 2) {
+            throw new IllegalArgumentException("Malformed descriptor: " + descriptor);
+        }
+        int index = paren + 1;
+        while (index < descriptor.length() && descriptor.charAt(index) != ')') {
+            index = skipType(descriptor, index, false);
+        }
+        if (index >= descriptor.length() || skipType(descriptor, index + 1, true) != descriptor.length()) {
+            throw new IllegalArgumentException("Malformed descriptor: " + descriptor);
+        }
+        return descriptor.substring(arrow + 2, paren);
+    }
+
+    private static int skipType(String descriptor, int index, boolean allowVoid) {
+        while (index < descriptor.length() && descriptor.charAt(index) == '[') {
+            index++;
+            allowVoid = false;
+        }
+        if (index >= descriptor.length()) {
+            throw new IllegalArgumentException("Malformed descriptor: " + descriptor);
+        }
+        switch (descriptor.charAt(index)) {
+            case 'Z', 'B', 'C', 'S', 'I', 'J', 'F', 'D':
+                return index + 1;
+            case 'V':
+                if (allowVoid) {
+                    return index + 1;
+                }
+                break;
+            case 'L':
+                int end = descriptor.indexOf(';', index);
+                if (end > index + 1) {
+                    return end + 1;
+                }
+                break;
+        }
+        throw new IllegalArgumentException("Malformed descriptor: " + descriptor);
+    }
+
+    @NonNull
+    private static String descriptorOf(Class<?>[] parameterTypes, Class<?> returnType) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> type : parameterTypes) {
+            appendDescriptor(builder, type);
+        }
+        builder.append(')');
+        appendDescriptor(builder, returnType);
+        return builder.toString();
+    }
+
+    private static void appendDescriptor(StringBuilder builder, Class<?> type) {
+        if (type.isArray()) {
+            builder.append(type.getName().replace('.', '/'));
+        } else if (type.isPrimitive()) {
+            builder.append(primitiveDescriptor(type));
+        } else {
+            builder.append('L').append(type.getName().replace('.', '/')).append(';');
+        }
+    }
+
+    private static char primitiveDescriptor(Class<?> type) {
+        if (type == int.class) return 'I';
+        if (type == long.class) return 'J';
+        if (type == boolean.class) return 'Z';
+        if (type == byte.class) return 'B';
+        if (type == char.class) return 'C';
+        if (type == short.class) return 'S';
+        if (type == float.class) return 'F';
+        if (type == double.class) return 'D';
+        return 'V';
+    }
+}
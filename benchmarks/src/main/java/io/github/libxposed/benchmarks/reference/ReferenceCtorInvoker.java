@@ -0,0 +1,125 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import io.github.libxposed.api.XposedInterface.CtorInvoker;
+import sun.reflect.ReflectionFactory;
+import io.github.libxposed.api.chain.HookChain;
+
+/**
+ * Constructor invoker creating instances through reflection. A plain JVM cannot run a constructor on
+ * an existing object, so calling the constructor as a method, including through method handles, is
+ * not supported, and hookers see a {@code null} {@code this} pointer. Special instantiation uses the
+ * serialization constructors of the JDK, which allocate the subclass and run only the given
+ * constructor.
+ */
+final class ReferenceCtorInvoker<T> extends ReferenceInvoker<CtorInvoker<T>, Constructor<T>> implements CtorInvoker<T> {
+
+    private final Constructor<T> mConstructor;
+    private final Class<?>[] mParameterTypes;
+
+    ReferenceCtorInvoker(HookChain chain, Constructor<T> constructor) {
+        super(chain);
+        constructor.setAccessible(true);
+        mConstructor = constructor;
+        mParameterTypes = constructor.getParameterTypes();
+    }
+
+    @Override
+    CtorInvoker<T> self() {
+        return this;
+    }
+
+    T newInstance(Type type, Object[] args) throws Throwable {
+        return mConstructor.getDeclaringClass().cast(construct(type, mConstructor, args));
+    }
+
+    private Object construct(Type type, Constructor<?> constructor, Object[] args) throws Throwable {
+        Object[] instance = new Object[1];
+        call(type, (thisObject, callArgs) -> {
+            try {
+                instance[0] = constructor.newInstance(callArgs);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return null;
+        }, null, args);
+        if (instance[0] == null) {
+            throw new InstantiationException("Construction skipped by hook: " + mConstructor);
+        }
+        return instance[0];
+    }
+
+    @Override
+    public Object invoke(Object thisObject, Object... args) {
+        throw new UnsupportedOperationException("Constructors cannot be invoked as methods on the JVM");
+    }
+
+    @Override
+    public Object invokeSpecial(@NonNull Object thisObject, Object... args) {
+        throw new UnsupportedOperationException("Constructors cannot be invoked as methods on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public MethodHandle getMethodHandle() {
+        throw new UnsupportedOperationException("Constructors cannot be invoked as methods on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public MethodHandle getSpecialMethodHandle() {
+        throw new UnsupportedOperationException("Constructors cannot be invoked as methods on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public T newInstance(Object... args) throws InvocationTargetException, InstantiationException {
+        try {
+            return newInstance(mType, args);
+        } catch (InstantiationException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @NonNull
+    @Override
+    public <U> U newInstanceSpecial(@NonNull Class<U> subClass, Object... args) throws InvocationTargetException, InstantiationException {
+        if (!mConstructor.getDeclaringClass().isAssignableFrom(subClass)) {
+            throw new IllegalArgumentException(subClass + " is not a subclass of " + mConstructor.getDeclaringClass());
+        }
+        Constructor<?> constructor = ReflectionFactory.getReflectionFactory().newConstructorForSerialization(subClass, mConstructor);
+        try {
+            return subClass.cast(construct(mType, constructor, args));
+        } catch (InstantiationException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @NonNull
+    @Override
+    public MethodHandle getNewInstanceHandle() {
+        MethodType handleType = MethodType.methodType(mConstructor.getDeclaringClass(), mParameterTypes);
+        try {
+            if (mType instanceof Type.Origin) {
+                return MethodHandles.lookup().unreflectConstructor(mConstructor);
+            }
+            MethodHandle handle = MethodHandles.lookup().findVirtual(ReferenceCtorInvoker.class, "newInstance",
+                    MethodType.methodType(Object.class, Type.class, Object[].class));
+            return MethodHandles.insertArguments(handle, 0, this, mType)
+                    .asCollector(Object[].class, mParameterTypes.length).asType(handleType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+
+import java.lang.reflect.Executable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.github.libxposed.api.XposedInterface.HookBatch;
+import io.github.libxposed.api.XposedInterface.HookBuilder;
+import io.github.libxposed.api.XposedInterface.HookHandle;
+
+/**
+ * Hook batch staging hooks until they are committed under a single lock.
+ */
+final class ReferenceHookBatch implements HookBatch {
+
+    private final ReferenceXposedInterface mOwner;
+    private final List<HookRecord> mStaged = new ArrayList<>();
+    private boolean mCommitted;
+
+    ReferenceHookBatch(ReferenceXposedInterface owner) {
+        mOwner = owner;
+    }
+
+    private void ensureNotCommitted() {
+        if (mCommitted) {
+            throw new IllegalStateException("Batch already committed");
+        }
+    }
+
+    void stage(HookRecord record) {
+        ensureNotCommitted();
+        mStaged.add(record);
+    }
+
+    @NonNull
+    @Override
+    public HookBuilder hook(@NonNull Executable origin) {
+        ensureNotCommitted();
+        return mOwner.newHookBuilder(origin, this);
+    }
+
+    @NonNull
+    @Override
+    public HookBuilder hookClassInitializer(@NonNull Class<?> origin) {
+        ensureNotCommitted();
+        throw new UnsupportedOperationException("Class initializer hooks are not supported on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public List<HookHandle> commit() {
+        return reconcile(List.of());
+    }
+
+    @NonNull
+    @Override
+    public List<HookHandle> reconcile(@NonNull Collection<? extends HookHandle> oldHandles) {
+        ensureNotCommitted();
+        mOwner.reconcile(mStaged, oldHandles);
+        mCommitted = true;
+        return List.copyOf(mStaged);
+    }
+}
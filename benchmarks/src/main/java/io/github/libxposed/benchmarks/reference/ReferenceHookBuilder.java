@@ -0,0 +1,88 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.Executable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.api.XposedInterface.ExceptionMode;
+import io.github.libxposed.api.XposedInterface.HookBuilder;
+import io.github.libxposed.api.XposedInterface.HookFilter;
+import io.github.libxposed.api.XposedInterface.HookHandle;
+import io.github.libxposed.api.XposedInterface.Hooker;
+import io.github.libxposed.api.chain.HookEntry;
+import io.github.libxposed.api.chain.HookMetricsRecorder;
+
+/**
+ * Hook builder installing the hook immediately, or staging it in a batch.
+ */
+final class ReferenceHookBuilder implements HookBuilder {
+
+    private final ReferenceXposedInterface mOwner;
+    private final Executable mExecutable;
+    private final ReferenceHookBatch mBatch;
+    private int mPriority = XposedInterface.PRIORITY_DEFAULT;
+    private ExceptionMode mExceptionMode = ExceptionMode.DEFAULT;
+    private String mId;
+    private boolean mMetricsEnabled;
+    private final List<HookFilter> mFilters = new ArrayList<>();
+
+    ReferenceHookBuilder(ReferenceXposedInterface owner, Executable executable, @Nullable ReferenceHookBatch batch) {
+        mOwner = owner;
+        mExecutable = executable;
+        mBatch = batch;
+    }
+
+    @Override
+    public HookBuilder setPriority(int priority) {
+        mPriority = priority;
+        return this;
+    }
+
+    @Override
+    public HookBuilder setExceptionMode(@NonNull ExceptionMode mode) {
+        mExceptionMode = Objects.requireNonNull(mode);
+        return this;
+    }
+
+    @Override
+    public HookBuilder setMetricsEnabled(boolean enabled) {
+        mMetricsEnabled = enabled;
+        return this;
+    }
+
+    @Override
+    public HookBuilder addFilter(@NonNull HookFilter filter) {
+        if (!filter.isApplicableTo(mExecutable)) {
+            throw new IllegalArgumentException("Filter " + filter.getKind() + " is not applicable to " + mExecutable);
+        }
+        mFilters.add(filter);
+        return this;
+    }
+
+    @Override
+    public HookBuilder setId(@Nullable String id) {
+        mId = id;
+        return this;
+    }
+
+    @NonNull
+    @Override
+    public HookHandle intercept(@NonNull Hooker hooker) {
+        if (hooker == null) {
+            throw new IllegalArgumentException("Hooker must not be null");
+        }
+        HookEntry entry = new HookEntry(hooker, mPriority, mExceptionMode, mMetricsEnabled ? new HookMetricsRecorder() : null, mFilters);
+        HookRecord record = new HookRecord(mOwner, mExecutable, entry, mId);
+        if (mBatch != null) {
+            mBatch.stage(record);
+        } else {
+            mOwner.install(record);
+        }
+        return record;
+    }
+}
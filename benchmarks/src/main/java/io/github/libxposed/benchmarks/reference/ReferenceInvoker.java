@@ -0,0 +1,67 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Executable;
+import java.util.Objects;
+
+import io.github.libxposed.api.XposedInterface.Invoker;
+import io.github.libxposed.api.chain.HookChain;
+
+/**
+ * Common part of the method and constructor invokers.
+ */
+abstract class ReferenceInvoker<T extends Invoker<T, U>, U extends Executable> implements Invoker<T, U> {
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+    private static final MethodHandle CALL;
+
+    static {
+        try {
+            CALL = MethodHandles.lookup().findVirtual(ReferenceInvoker.class, "call",
+                    MethodType.methodType(Object.class, Type.class, HookChain.Origin.class, Object.class, Object[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final HookChain mChain;
+    Type mType = Type.Chain.FULL;
+
+    ReferenceInvoker(HookChain chain) {
+        mChain = chain;
+    }
+
+    abstract T self();
+
+    @Override
+    public T setType(@NonNull Type type) {
+        mType = Objects.requireNonNull(type);
+        return self();
+    }
+
+    Object call(Type type, HookChain.Origin origin, Object thisObject, Object[] args) throws Throwable {
+        if (args == null) {
+            args = EMPTY_ARGS;
+        }
+        if (type instanceof Type.Chain chain) {
+            return mChain.invoke(chain.maxPriority(), thisObject, args, origin);
+        }
+        return origin.call(thisObject, args);
+    }
+
+    /**
+     * Creates a handle of the given exact type that calls through the hook chain determined by type.
+     * The receiver is the leading parameter of the handle unless it is static.
+     */
+    MethodHandle chainHandle(Type type, HookChain.Origin origin, boolean isStatic, MethodType handleType) {
+        MethodHandle handle = MethodHandles.insertArguments(CALL, 0, this, type, origin);
+        if (isStatic) {
+            handle = MethodHandles.insertArguments(handle, 0, (Object) null);
+        }
+        return handle.asCollector(Object[].class, mChain.getExecutable().getParameterCount()).asType(handleType);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import io.github.libxposed.api.XposedInterface.Logger;
+
+/**
+ * Logger writing synchronously through the owning interface. Nothing is buffered, so nothing is dropped.
+ * <p>
+ * The capacity and overflow policy passed to
+ * {@link io.github.libxposed.api.XposedInterface#getLogger(String, int, io.github.libxposed.api.XposedInterface.LogOverflowPolicy)}
+ * are ignored, so benchmarks on the reference implementation do not measure asynchronous buffering.
+ * </p>
+ */
+final class ReferenceLogger implements Logger {
+
+    private final ReferenceXposedInterface mOwner;
+    private final String mTag;
+
+    ReferenceLogger(ReferenceXposedInterface owner, @Nullable String tag) {
+        mOwner = owner;
+        mTag = tag;
+    }
+
+    @Nullable
+    @Override
+    public String getTag() {
+        return mTag;
+    }
+
+    @Override
+    public void log(int priority, @NonNull String msg) {
+        mOwner.log(priority, mTag, msg);
+    }
+
+    @Override
+    public void log(int priority, @NonNull String msg, @Nullable Throwable tr) {
+        mOwner.log(priority, mTag, msg, tr);
+    }
+
+    @Override
+    public boolean isLoggable(int priority) {
+        return mOwner.isLoggable(priority, mTag);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return 0L;
+    }
+}
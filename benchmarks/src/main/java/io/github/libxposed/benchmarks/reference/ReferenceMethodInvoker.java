@@ -0,0 +1,109 @@
+package io.github.libxposed.benchmarks.reference;
+
+import androidx.annotation.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import io.github.libxposed.api.chain.HookChain;
+
+/**
+ * Method invoker calling the original method through reflection.
+ */
+final class ReferenceMethodInvoker extends ReferenceInvoker<ReferenceMethodInvoker, Method> {
+
+    private final Method mMethod;
+    private final boolean mStatic;
+    private final HookChain.Origin mOrigin;
+    private HookChain.Origin mSpecialOrigin;
+
+    ReferenceMethodInvoker(HookChain chain, Method method) {
+        super(chain);
+        method.setAccessible(true);
+        mMethod = method;
+        mStatic = Modifier.isStatic(method.getModifiers());
+        mOrigin = (thisObject, args) -> {
+            try {
+                return method.invoke(thisObject, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    @Override
+    ReferenceMethodInvoker self() {
+        return this;
+    }
+
+    private MethodType handleType() {
+        MethodType type = MethodType.methodType(mMethod.getReturnType(), mMethod.getParameterTypes());
+        return mStatic ? type : type.insertParameterTypes(0, mMethod.getDeclaringClass());
+    }
+
+    private MethodHandle specialHandle() throws IllegalAccessException {
+        if (mStatic) {
+            throw new IllegalStateException("Static method has no special invocation: " + mMethod);
+        }
+        Class<?> declaringClass = mMethod.getDeclaringClass();
+        return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup()).unreflectSpecial(mMethod, declaringClass);
+    }
+
+    private HookChain.Origin specialOrigin() throws IllegalAccessException {
+        if (mSpecialOrigin == null) {
+            MethodHandle handle = specialHandle().asSpreader(1, Object[].class, mMethod.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            mSpecialOrigin = (thisObject, args) -> handle.invokeExact(thisObject, args);
+        }
+        return mSpecialOrigin;
+    }
+
+    @Override
+    public Object invoke(Object thisObject, Object... args) throws InvocationTargetException {
+        try {
+            return call(mType, mOrigin, thisObject, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @Override
+    public Object invokeSpecial(@NonNull Object thisObject, Object... args) throws InvocationTargetException, IllegalAccessException {
+        HookChain.Origin origin = specialOrigin();
+        try {
+            return call(mType, origin, thisObject, args);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    @NonNull
+    @Override
+    public MethodHandle getMethodHandle() {
+        if (mType instanceof Type.Origin) {
+            try {
+                return MethodHandles.lookup().unreflect(mMethod);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return chainHandle(mType, mOrigin, mStatic, handleType());
+    }
+
+    @NonNull
+    @Override
+    public MethodHandle getSpecialMethodHandle() {
+        try {
+            if (mType instanceof Type.Origin) {
+                return specialHandle();
+            }
+            return chainHandle(mType, specialOrigin(), false, handleType());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package io.github.libxposed.benchmarks.reference;
+
+import android.content.SharedPreferences;
+import android.content.pm.ApplicationInfo;
+import android.os.ParcelFileDescriptor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FileNotFoundException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import io.github.libxposed.api.XposedInterface;
+import io.github.libxposed.api.chain.HookChain;
+import io.github.libxposed.api.chain.HookTable;
+import io.github.libxposed.api.error.HookFailedError;
+
+/**
+ * Pure-JVM reference implementation of {@link XposedInterface}, used to measure the cost of the API
+ * contract without a device.
+ * <p>
+ * The JVM cannot redirect calls of an executable, so hooks only take effect on calls made through
+ * invokers obtained from this interface. Remote preferences and files are kept in memory and written
+ * through {@link #putRemotePreferences(String, Map)}, {@link #putRemoteFile(String, byte[])} and
+ * {@link #deleteRemoteFile(String)}. Features that depend on the Android runtime, such as class
+ * initializer hooks, deferred and selector hooks, which need class loading events, deoptimization,
+ * file descriptors and the module application info, are not supported.
+ * </p>
+ */
+public class ReferenceXposedInterface implements XposedInterface {
+
+    /**
+     * Destination of the messages logged through the interface and its loggers.
+     */
+    @FunctionalInterface
+    public interface LogSink {
+        /**
+         * Sink discarding all messages, the default, so logging does not disturb benchmark output.
+         */
+        LogSink NONE = (priority, tag, msg, tr) -> {
+        };
+
+        /**
+         * Writes a message that passed the loggable check.
+         *
+         * @param priority The log priority, see {@link android.util.Log}
+         * @param tag      The log tag
+         * @param msg      The log message
+         * @param tr       An exception to log, or {@code null}
+         */
+        void write(int priority, @Nullable String tag, @NonNull String msg, @Nullable Throwable tr);
+    }
+
+    private final Object mLock = new Object();
+    private final HookTable mTable = new HookTable();
+    private final Map<Executable, HookChain> mChains = new ConcurrentHashMap<>();
+    private final Map<Executable, List<HookRecord>> mRecords = new HashMap<>();
+    private final MemberResolver mResolver = new MemberResolver();
+    private final RemotePreferences mRemotePreferences = new RemotePreferences();
+    private final RemoteFiles mRemoteFiles = new RemoteFiles();
+    private volatile int mLoggablePriority = 4;
+    private volatile LogSink mLogSink = LogSink.NONE;
+
+    /**
+     * Sets the minimum priority of messages written to the log, default to {@code INFO}.
+     *
+     * @param priority The log priority, see {@link android.util.Log}
+     */
+    public void setLoggablePriority(int priority) {
+        mLoggablePriority = priority;
+    }
+
+    /**
+     * Sets the destination of logged messages, default to {@link LogSink#NONE}.
+     *
+     * @param sink The log sink
+     */
+    public void setLogSink(@NonNull LogSink sink) {
+        mLogSink = Objects.requireNonNull(sink);
+    }
+
+    /**
+     * Replaces the content of a remote preference group, as the module app would, and publishes a new
+     * snapshot. Listeners are called on the calling thread.
+     *
+     * @param group  Group name
+     * @param values The new values, each a {@link Boolean}, {@link Integer}, {@link Long},
+     *               {@link Float}, {@link String} or {@link java.util.Set} of strings
+     */
+    public void putRemotePreferences(@NonNull String group, @NonNull Map<String, ?> values) {
+        mRemotePreferences.put(group, values);
+    }
+
+    /**
+     * Creates or replaces a remote file, as the module app would. Listeners are called on the calling
+     * thread.
+     *
+     * @param name    File name, must not contain path separators and . or ..
+     * @param content The file content, copied
+     */
+    public void putRemoteFile(@NonNull String name, @NonNull byte[] content) {
+        mRemoteFiles.put(name, content);
+    }
+
+    /**
+     * Deletes a remote file, as the module app would. Listeners are called on the calling thread.
+     *
+     * @param name File name
+     */
+    public void deleteRemoteFile(@NonNull String name) {
+        mRemoteFiles.delete(name);
+    }
+
+    private HookChain chain(Executable executable) {
+        return mChains.computeIfAbsent(executable, key -> new HookChain(key,
+                (entry, throwable) -> log(6, "Reference", "Hooker threw on " + key, throwable), mTable));
+    }
+
+    /**
+     * Changes of one operation: the chain transaction, and how to restore the records if it fails.
+     */
+    private final class Changes {
+        final HookTable.Transaction mTransaction = mTable.newTransaction();
+        private final Deque<Runnable> mUndo = new ArrayDeque<>();
+
+        void onRollback(Runnable undo) {
+            mUndo.push(undo);
+        }
+
+        void publish() {
+            if (!mTransaction.commit()) {
+                while (!mUndo.isEmpty()) {
+                    mUndo.pop().run();
+                }
+                throw new HookFailedError("Hook chains are out of sync with the installed hooks");
+            }
+        }
+    }
+
+    HookBuilder newHookBuilder(Executable origin, @Nullable ReferenceHookBatch batch) {
+        if (!(origin instanceof Method) && !(origin instanceof Constructor)) {
+            throw new IllegalArgumentException("Cannot hook " + origin);
+        }
+        return new ReferenceHookBuilder(this, origin, batch);
+    }
+
+    private HookRecord own(HookHandle handle) {
+        if (!(handle instanceof HookRecord record) || !record.isOwnedBy(this)) {
+            throw new IllegalArgumentException("Hook handle not created by this interface: " + handle);
+        }
+        return record;
+    }
+
+    private HookRecord findLocked(Executable executable, String id) {
+        for (HookRecord record : mRecords.getOrDefault(executable, List.of())) {
+            if (id.equals(record.mId)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    private void swapLocked(HookRecord record, HookRecord replacement, Changes changes) {
+        changes.mTransaction.replace(chain(record.mExecutable), record.mEntry, replacement.mEntry);
+        List<HookRecord> records = mRecords.get(record.mExecutable);
+        int index = records.indexOf(record);
+        records.set(index, replacement);
+        record.mValid = false;
+        replacement.mValid = true;
+        changes.onRollback(() -> {
+            records.set(index, record);
+            record.mValid = true;
+            replacement.mValid = false;
+        });
+    }
+
+    private void installLocked(HookRecord record, Changes changes) {
+        HookRecord existing = record.mId == null ? null : findLocked(record.mExecutable, record.mId);
+        if (existing != null) {
+            swapLocked(existing, record, changes);
+            return;
+        }
+        changes.mTransaction.add(chain(record.mExecutable), record.mEntry);
+        List<HookRecord> records = mRecords.computeIfAbsent(record.mExecutable, executable -> new ArrayList<>());
+        records.add(record);
+        record.mValid = true;
+        changes.onRollback(() -> {
+            records.remove(record);
+            record.mValid = false;
+        });
+    }
+
+    private void unhookLocked(HookRecord record, Changes changes) {
+        if (record.mValid) {
+            changes.mTransaction.remove(chain(record.mExecutable), record.mEntry);
+            List<HookRecord> records = mRecords.get(record.mExecutable);
+            int index = records.indexOf(record);
+            records.remove(index);
+            record.mValid = false;
+            changes.onRollback(() -> {
+                records.add(index, record);
+                record.mValid = true;
+            });
+        }
+    }
+
+    private HookRecord replaceLocked(HookRecord record, Hooker hooker, Changes changes) {
+        HookRecord replacement = record.withHooker(hooker);
+        swapLocked(record, replacement, changes);
+        return replacement;
+    }
+
+    void install(HookRecord record) {
+        synchronized (mLock) {
+            Changes changes = new Changes();
+            installLocked(record, changes);
+            changes.publish();
+        }
+    }
+
+    void unhook(HookRecord record) {
+        synchronized (mLock) {
+            Changes changes = new Changes();
+            unhookLocked(record, changes);
+            changes.publish();
+        }
+    }
+
+    HookHandle replaceHook(HookRecord record, Hooker hooker) {
+        if (hooker == null) {
+            throw new IllegalArgumentException("Hooker must not be null");
+        }
+        synchronized (mLock) {
+            if (!record.mValid) {
+                throw new IllegalStateException("Hook handle is no longer valid");
+            }
+            Changes changes = new Changes();
+            HookHandle replacement = replaceLocked(record, hooker, changes);
+            changes.publish();
+            return replacement;
+        }
+    }
+
+    void reconcile(List<HookRecord> staged, Collection<? extends HookHandle> oldHandles) {
+        synchronized (mLock) {
+            Changes changes = new Changes();
+            List<HookRecord> old = new ArrayList<>(oldHandles.size());
+            for (HookHandle handle : oldHandles) {
+                HookRecord record = own(handle);
+                if (record.mValid) {
+                    old.add(record);
+                }
+            }
+            for (HookRecord record : staged) {
+                HookRecord matched = null;
+                if (record.mId != null) {
+                    for (Iterator<HookRecord> it = old.iterator(); it.hasNext(); ) {
+                        HookRecord candidate = it.next();
+                        if (record.mId.equals(candidate.mId) && record.mExecutable.equals(candidate.mExecutable)) {
+                            matched = candidate;
+                            it.remove();
+                            break;
+                        }
+                    }
+                }
+                if (matched != null) {
+                    swapLocked(matched, record, changes);
+                } else {
+                    installLocked(record, changes);
+                }
+            }
+            for (HookRecord record : old) {
+                unhookLocked(record, changes);
+            }
+            changes.publish();
+        }
+    }
+
+    @NonNull
+    @Override
+    public String getFrameworkName() {
+        return "Reference";
+    }
+
+    @NonNull
+    @Override
+    public String getFrameworkVersion() {
+        return "1.0";
+    }
+
+    @Override
+    public long getFrameworkVersionCode() {
+        return 1L;
+    }
+
+    @Override
+    public long getFrameworkProperties() {
+        return 0L;
+    }
+
+    @NonNull
+    @Override
+    public HookBuilder hook(@NonNull Executable origin) {
+        return newHookBuilder(origin, null);
+    }
+
+    @NonNull
+    @Override
+    public HookBuilder hookClassInitializer(@NonNull Class<?> origin) {
+        throw new UnsupportedOperationException("Class initializer hooks are not supported on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public HookBatch newHookBatch() {
+        return new ReferenceHookBatch(this);
+    }
+
+    @NonNull
+    @Override
+    public DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String className, @NonNull String name, @NonNull String descriptor) {
+        throw new UnsupportedOperationException("Deferred hooks are not supported on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public DeferredHookBuilder hookDeferred(@NonNull ClassLoader classLoader, @NonNull String descriptor) {
+        throw new UnsupportedOperationException("Deferred hooks are not supported on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public SelectorHookBuilder hookMatching(@NonNull ClassLoader classLoader) {
+        throw new UnsupportedOperationException("Selector hooks are not supported on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public Method resolveMethod(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        return mResolver.resolveMethod(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public Constructor<?> resolveConstructor(@NonNull ClassLoader classLoader, @NonNull String descriptor) throws ClassNotFoundException, NoSuchMethodException {
+        return mResolver.resolveConstructor(classLoader, descriptor);
+    }
+
+    @NonNull
+    @Override
+    public Map<String, Executable> resolveExecutables(@NonNull ClassLoader classLoader, @NonNull Collection<String> descriptors) {
+        return mResolver.resolveAll(classLoader, descriptors);
+    }
+
+    @Override
+    public void unhookAll(@NonNull Collection<? extends HookHandle> handles) {
+        synchronized (mLock) {
+            Changes changes = new Changes();
+            for (HookHandle handle : handles) {
+                unhookLocked(own(handle), changes);
+            }
+            changes.publish();
+        }
+    }
+
+    @NonNull
+    @Override
+    public Map<HookHandle, HookHandle> replaceHooks(@NonNull Map<? extends HookHandle, ? extends Hooker> replacements) {
+        synchronized (mLock) {
+            for (Map.Entry<? extends HookHandle, ? extends Hooker> entry : replacements.entrySet()) {
+                if (entry.getValue() == null) {
+                    throw new IllegalArgumentException("Hooker must not be null");
+                }
+                if (!own(entry.getKey()).mValid) {
+                    throw new IllegalStateException("Hook handle is no longer valid");
+                }
+            }
+            Changes changes = new Changes();
+            Map<HookHandle, HookHandle> result = new LinkedHashMap<>();
+            for (Map.Entry<? extends HookHandle, ? extends Hooker> entry : replacements.entrySet()) {
+                result.put(entry.getKey(), replaceLocked((HookRecord) entry.getKey(), entry.getValue(), changes));
+            }
+            changes.publish();
+            return result;
+        }
+    }
+
+    @Override
+    public boolean deoptimize(@NonNull Executable executable) {
+        return false;
+    }
+
+    @NonNull
+    @Override
+    public Map<Executable, DeoptimizeResult> deoptimize(@NonNull Collection<? extends Executable> executables) {
+        Map<Executable, DeoptimizeResult> result = new LinkedHashMap<>();
+        for (Executable executable : executables) {
+            result.put(executable, DeoptimizeResult.FAILED);
+        }
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public Invoker<?, Method> getInvoker(@NonNull Method method) {
+        return new ReferenceMethodInvoker(chain(method), method);
+    }
+
+    @NonNull
+    @Override
+    public <T> CtorInvoker<T> getInvoker(@NonNull Constructor<T> constructor) {
+        return new ReferenceCtorInvoker<>(chain(constructor), constructor);
+    }
+
+    @Override
+    public void log(int priority, @Nullable String tag, @NonNull String msg) {
+        log(priority, tag, msg, null);
+    }
+
+    @Override
+    public void log(int priority, @Nullable String tag, @NonNull String msg, @Nullable Throwable tr) {
+        if (!isLoggable(priority, tag)) {
+            return;
+        }
+        mLogSink.write(priority, tag, msg, tr);
+    }
+
+    @Override
+    public boolean isLoggable(int priority, @Nullable String tag) {
+        return priority >= mLoggablePriority;
+    }
+
+    @NonNull
+    @Override
+    public Logger getLogger(@Nullable String tag) {
+        return new ReferenceLogger(this, tag);
+    }
+
+    @NonNull
+    @Override
+    public Logger getLogger(@Nullable String tag, int capacity, @NonNull LogOverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        return new ReferenceLogger(this, tag);
+    }
+
+    @NonNull
+    @Override
+    public ApplicationInfo getModuleApplicationInfo() {
+        throw new UnsupportedOperationException("Module application info is not available on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public SharedPreferences getRemotePreferences(@NonNull String group) {
+        return mRemotePreferences.getPreferences(group);
+    }
+
+    @NonNull
+    @Override
+    public PreferencesSnapshot getRemotePreferencesSnapshot(@NonNull String group) {
+        return mRemotePreferences.getSnapshot(group);
+    }
+
+    @Override
+    public void registerRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener) {
+        mRemotePreferences.registerListener(group, listener);
+    }
+
+    @Override
+    public void unregisterRemotePreferencesListener(@NonNull String group, @NonNull Consumer<PreferencesSnapshot> listener) {
+        mRemotePreferences.unregisterListener(group, listener);
+    }
+
+    @NonNull
+    @Override
+    public String[] listRemoteFiles() {
+        return mRemoteFiles.list();
+    }
+
+    @NonNull
+    @Override
+    public List<RemoteFileInfo> listRemoteFileInfos() {
+        return mRemoteFiles.listInfos();
+    }
+
+    @NonNull
+    @Override
+    public RemoteFileInfo getRemoteFileInfo(@NonNull String name) throws FileNotFoundException {
+        return mRemoteFiles.getInfo(name);
+    }
+
+    @Override
+    public void registerRemoteFileListener(@NonNull RemoteFileListener listener) {
+        mRemoteFiles.registerListener(listener);
+    }
+
+    @Override
+    public void unregisterRemoteFileListener(@NonNull RemoteFileListener listener) {
+        mRemoteFiles.unregisterListener(listener);
+    }
+
+    @NonNull
+    @Override
+    public ParcelFileDescriptor openRemoteFile(@NonNull String name) throws FileNotFoundException {
+        throw new UnsupportedOperationException("File descriptors are not available on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public List<RemoteFileResult> openRemoteFiles(@NonNull Collection<String> names) {
+        throw new UnsupportedOperationException("File descriptors are not available on the JVM");
+    }
+
+    @NonNull
+    @Override
+    public ByteBuffer mapRemoteFile(@NonNull String name) throws FileNotFoundException {
+        return mRemoteFiles.map(name);
+    }
+}
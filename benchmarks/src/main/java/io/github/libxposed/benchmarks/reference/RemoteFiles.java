@@ -0,0 +1,114 @@
+package io.github.libxposed.benchmarks.reference;
+
+import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.github.libxposed.api.XposedInterface.RemoteFileInfo;
+import io.github.libxposed.api.XposedInterface.RemoteFileListener;
+
+/**
+ * In-memory files of the module's shared data directory. The module app side is played by
+ * {@link ReferenceXposedInterface#putRemoteFile(String, byte[])} and
+ * {@link ReferenceXposedInterface#deleteRemoteFile(String)}, which notify listeners on the calling
+ * thread. Mapping a file returns a read-only view of its content, which is never copied again.
+ */
+final class RemoteFiles {
+
+    private record RemoteFile(ByteBuffer content, RemoteFileInfo info) {
+    }
+
+    private final Object mLock = new Object();
+    private final Map<String, RemoteFile> mFiles = new ConcurrentSkipListMap<>();
+    private final CopyOnWriteArrayList<RemoteFileListener> mListeners = new CopyOnWriteArrayList<>();
+    private long mGeneration;
+
+    private static boolean isValidName(String name) {
+        return !name.isEmpty() && !name.equals(".") && !name.equals("..") && name.indexOf('/') < 0;
+    }
+
+    private RemoteFile find(String name) throws FileNotFoundException {
+        RemoteFile file = isValidName(name) ? mFiles.get(name) : null;
+        if (file == null) {
+            throw new FileNotFoundException(name);
+        }
+        return file;
+    }
+
+    String[] list() {
+        return mFiles.keySet().toArray(new String[0]);
+    }
+
+    List<RemoteFileInfo> listInfos() {
+        List<RemoteFileInfo> infos = new ArrayList<>(mFiles.size());
+        for (RemoteFile file : mFiles.values()) {
+            infos.add(file.info());
+        }
+        return infos;
+    }
+
+    RemoteFileInfo getInfo(String name) throws FileNotFoundException {
+        return find(name).info();
+    }
+
+    ByteBuffer map(String name) throws FileNotFoundException {
+        return find(name).content().duplicate();
+    }
+
+    void registerListener(RemoteFileListener listener) {
+        mListeners.addIfAbsent(Objects.requireNonNull(listener));
+    }
+
+    void unregisterListener(RemoteFileListener listener) {
+        mListeners.remove(listener);
+    }
+
+    void put(String name, byte[] content) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Invalid file name: " + name);
+        }
+        byte[] copy = content.clone();
+        RemoteFileInfo info;
+        synchronized (mLock) {
+            info = new RemoteFileInfo(name, copy.length, ++mGeneration, sha256(copy));
+            mFiles.put(name, new RemoteFile(ByteBuffer.wrap(copy).asReadOnlyBuffer(), info));
+        }
+        notifyChanged(name, info);
+    }
+
+    void delete(String name) {
+        boolean removed;
+        synchronized (mLock) {
+            removed = mFiles.remove(name) != null;
+        }
+        if (removed) {
+            notifyChanged(name, null);
+        }
+    }
+
+    private void notifyChanged(String name, RemoteFileInfo info) {
+        for (RemoteFileListener listener : mListeners) {
+            listener.onRemoteFileChanged(name, info);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder builder = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package io.github.libxposed.benchmarks.reference;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import io.github.libxposed.api.XposedInterface.PreferencesSnapshot;
+
+/**
+ * In-memory remote preference groups. The module app side is played by
+ * {@link ReferenceXposedInterface#putRemotePreferences(String, Map)}, which publishes a new immutable
+ * snapshot of a group and notifies its listeners on the calling thread.
+ */
+final class RemotePreferences {
+
+    private final Map<String, Group> mGroups = new ConcurrentHashMap<>();
+
+    private Group group(String group) {
+        return mGroups.computeIfAbsent(Objects.requireNonNull(group), key -> new Group());
+    }
+
+    SharedPreferences getPreferences(String group) {
+        return group(group).mPreferences;
+    }
+
+    PreferencesSnapshot getSnapshot(String group) {
+        return group(group).mSnapshot;
+    }
+
+    void registerListener(String group, Consumer<PreferencesSnapshot> listener) {
+        group(group).mListeners.addIfAbsent(Objects.requireNonNull(listener));
+    }
+
+    void unregisterListener(String group, Consumer<PreferencesSnapshot> listener) {
+        group(group).mListeners.remove(listener);
+    }
+
+    void put(String group, Map<String, ?> values) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            copy.put(Objects.requireNonNull(entry.getKey()), immutableValue(entry.getValue()));
+        }
+        group(group).publish(Map.copyOf(copy));
+    }
+
+    private static Object immutableValue(Object value) {
+        if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                || value instanceof Float || value instanceof String) {
+            return value;
+        }
+        if (value instanceof Set<?> set) {
+            for (Object element : set) {
+                if (!(element instanceof String)) {
+                    throw new IllegalArgumentException("String set contains " + element);
+                }
+            }
+            return Set.copyOf(set);
+        }
+        throw new IllegalArgumentException("Unsupported preference value: " + value);
+    }
+
+    private static final class Group {
+        private final Object mLock = new Object();
+        private final CopyOnWriteArrayList<Consumer<PreferencesSnapshot>> mListeners = new CopyOnWriteArrayList<>();
+        private final List<SharedPreferences.OnSharedPreferenceChangeListener> mChangeListeners = new CopyOnWriteArrayList<>();
+        private final SharedPreferences mPreferences = new Preferences(this);
+        private volatile Snapshot mSnapshot = new Snapshot(0L, Map.of());
+
+        void publish(Map<String, Object> values) {
+            Snapshot old;
+            Snapshot snapshot;
+            synchronized (mLock) {
+                old = mSnapshot;
+                snapshot = new Snapshot(old.mGeneration + 1, values);
+                mSnapshot = snapshot;
+            }
+            Set<String> keys = new HashSet<>(old.mValues.keySet());
+            keys.addAll(values.keySet());
+            for (String key : keys) {
+                if (!Objects.equals(old.mValues.get(key), values.get(key))) {
+                    for (SharedPreferences.OnSharedPreferenceChangeListener listener : mChangeListeners) {
+                        listener.onSharedPreferenceChanged(mPreferences, key);
+                    }
+                }
+            }
+            for (Consumer<PreferencesSnapshot> listener : mListeners) {
+                listener.accept(snapshot);
+            }
+        }
+    }
+
+    private static final class Snapshot implements PreferencesSnapshot {
+        final long mGeneration;
+        final Map<String, Object> mValues;
+
+        Snapshot(long generation, Map<String, Object> values) {
+            mGeneration = generation;
+            mValues = values;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T get(String key, T defValue, Class<?> type) {
+            Object value = mValues.get(key);
+            if (value == null) {
+                return defValue;
+            }
+            if (!type.isInstance(value)) {
+                throw new ClassCastException("Preference " + key + " is not " + type.getSimpleName());
+            }
+            return (T) value;
+        }
+
+        @Override
+        public long getGeneration() {
+            return mGeneration;
+        }
+
+        @Override
+        public boolean contains(@NonNull String key) {
+            return mValues.containsKey(key);
+        }
+
+        @Override
+        public boolean getBoolean(@NonNull String key, boolean defValue) {
+            return get(key, defValue, Boolean.class);
+        }
+
+        @Override
+        public int getInt(@NonNull String key, int defValue) {
+            return get(key, defValue, Integer.class);
+        }
+
+        @Override
+        public long getLong(@NonNull String key, long defValue) {
+            return get(key, defValue, Long.class);
+        }
+
+        @Override
+        public float getFloat(@NonNull String key, float defValue) {
+            return get(key, defValue, Float.class);
+        }
+
+        @Nullable
+        @Override
+        public String getString(@NonNull String key, @Nullable String defValue) {
+            return get(key, defValue, String.class);
+        }
+
+        @Nullable
+        @Override
+        public Set<String> getStringSet(@NonNull String key, @Nullable Set<String> defValues) {
+            return get(key, defValues, Set.class);
+        }
+
+        @NonNull
+        @Override
+        public Map<String, ?> getAll() {
+            return mValues;
+        }
+    }
+
+    /**
+     * Read-only preferences reading the latest snapshot of a group, as in hooked apps.
+     */
+    private static final class Preferences implements SharedPreferences {
+        private final Group mGroup;
+
+        Preferences(Group group) {
+            mGroup = group;
+        }
+
+        @Override
+        public Map<String, ?> getAll() {
+            return mGroup.mSnapshot.getAll();
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            return mGroup.mSnapshot.getString(key, defValue);
+        }
+
+        @Override
+        public Set<String> getStringSet(String key, Set<String> defValues) {
+            return mGroup.mSnapshot.getStringSet(key, defValues);
+        }
+
+        @Override
+        public int getInt(String key, int defValue) {
+            return mGroup.mSnapshot.getInt(key, defValue);
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            return mGroup.mSnapshot.getLong(key, defValue);
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            return mGroup.mSnapshot.getFloat(key, defValue);
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            return mGroup.mSnapshot.getBoolean(key, defValue);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return mGroup.mSnapshot.contains(key);
+        }
+
+        @Override
+        public Editor edit() {
+            throw new UnsupportedOperationException("Remote preferences are read-only in hooked apps");
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+            mGroup.mChangeListeners.add(listener);
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(OnSharedPreferenceChangeListener listener) {
+            mGroup.mChangeListeners.remove(listener);
+        }
+    }
+}
@@ -31,3 +31,4 @@ dependencyResolutionManagement {
 rootProject.name = "libxposed-api"
 
 include(":api")
+include(":benchmarks")